@@ -0,0 +1,175 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.AsynchronousFileChannel;
+import java.nio.channels.CompletionHandler;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Keeps up to queueDepth writes of an AsynchronousFileChannel in flight, which NVMe devices need for full bandwidth.
+ * Every write owns one of queueDepth reusable direct buffers. The generator (caller thread) refills a buffer
+ * as soon as its write completes and submits it again, so generating overlaps with all outstanding writes.
+ * Buffers are reused by the next write() call, which must not run concurrently.
+ */
+public class AsyncWriteEngine {
+    private final int queueDepth;
+    private final int bufferSize;
+    private final BlockingQueue<Slot> freeSlots;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private Durability durability = Durability.NONE;
+    private Metrics metrics = Metrics.NOOP;
+
+    public AsyncWriteEngine(int queueDepth, int bufferSize) {
+        if (queueDepth <= 0 || bufferSize <= 0)
+            throw new IllegalArgumentException("Queue depth and buffer size must be positive");
+        this.queueDepth = queueDepth;
+        this.bufferSize = bufferSize;
+        this.freeSlots = new ArrayBlockingQueue<>(queueDepth);
+        for (int i = 0; i < queueDepth; i++)
+            freeSlots.add(new Slot(ByteBuffer.allocateDirect(bufferSize)));
+    }
+
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Writes bytes [0, size) of the Random(seed).nextBytes() sequence into the file and waits for all writes
+     */
+    public void write(Path path, long seed, long size) throws IOException {
+        write(path, GeneratorBackend.lcg(seed), size);
+    }
+
+    /**
+     * Writes bytes [0, size) of the backend's sequence into the file and waits for all writes
+     */
+    public void write(Path path, GeneratorBackend backend, long size) throws IOException {
+        awaitSlots(); // writes of a previous call that exited early must not reach this file or its failure
+        failure.set(null);
+        ByteGenerator generator = backend.atByte(0);
+        try (AsynchronousFileChannel channel = AsynchronousFileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (long position = 0; position < size && failure.get() == null; ) {
+                Slot slot = take();
+                long tBatch = metrics.time();
+                JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+                event.begin();
+                int length = (int) Math.min(bufferSize, size - position);
+                try {
+                    slot.buffer.clear().limit(length);
+                    generator.nextBytes(slot.buffer);
+                    slot.buffer.flip();
+                } catch (RuntimeException ex) {
+                    freeSlots.add(slot);
+                    throw ex;
+                }
+                event.end(position, length);
+                metrics.recordPhase(Phase.GENERATE, tBatch, length);
+                metrics.recordBatch(tBatch);
+                slot.submit(channel, position);
+                metrics.recordQueueDepth(queueDepth - freeSlots.size());
+                position += length;
+            }
+            awaitSlots(); // wait for the outstanding writes
+            if (failure.get() == null && durability != Durability.NONE) {
+                long tForce = metrics.time();
+                channel.force(true);
+                metrics.recordPhase(Phase.FORCE, tForce, size);
+            }
+        }
+        Throwable throwable = failure.getAndSet(null);
+        if (throwable instanceof IOException)
+            throw (IOException) throwable;
+        if (throwable != null)
+            throw new IOException(throwable);
+    }
+
+    /**
+     * Waits until all queueDepth slots are back, i.e. no write is in flight
+     */
+    private void awaitSlots() throws IOException {
+        List<Slot> slots = new ArrayList<>(queueDepth);
+        try {
+            for (int i = 0; i < queueDepth; i++)
+                slots.add(take());
+        } finally {
+            freeSlots.addAll(slots);
+        }
+    }
+
+    private Slot take() throws IOException {
+        Slot slot = freeSlots.poll();
+        if (slot != null)
+            return slot;
+        metrics.recordStall();
+        long tIdle = metrics.time();
+        try {
+            return freeSlots.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for a write to complete", e);
+        } finally {
+            metrics.recordIdle(tIdle);
+        }
+    }
+
+    /**
+     * Reusable buffer with its completion handler, goes back to freeSlots when its write is complete or failed
+     */
+    private class Slot implements CompletionHandler<Integer, AsynchronousFileChannel> {
+        private final ByteBuffer buffer;
+        private long start;
+        private long position;
+        private long tWrite;
+
+        Slot(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void submit(AsynchronousFileChannel channel, long position) {
+            this.start = position;
+            this.position = position;
+            this.tWrite = metrics.time();
+            write(channel);
+        }
+
+        /**
+         * A write that throws instead of calling the handler would never give the slot back, so it is failed here
+         */
+        private void write(AsynchronousFileChannel channel) {
+            try {
+                channel.write(buffer, position, channel, this);
+            } catch (RuntimeException ex) {
+                failed(ex, channel);
+            }
+        }
+
+        @Override
+        public void completed(Integer written, AsynchronousFileChannel channel) {
+            position += written;
+            if (buffer.hasRemaining()) { // short write, continue from where it stopped
+                write(channel);
+                return;
+            }
+            metrics.recordPhase(Phase.WRITE, tWrite, position - start);
+            freeSlots.add(this);
+        }
+
+        @Override
+        public void failed(Throwable exc, AsynchronousFileChannel channel) {
+            failure.compareAndSet(null, exc);
+            freeSlots.add(this);
+        }
+    }
+}
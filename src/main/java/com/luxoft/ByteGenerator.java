@@ -0,0 +1,21 @@
+package com.luxoft;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Continuous byte stream of a {@link GeneratorBackend}: any sequence of calls gives the same bytes
+ * as one call of the total length. Not thread-safe, every thread takes its own one from GeneratorBackend.atByte().
+ */
+public interface ByteGenerator {
+
+    default void nextBytes(byte[] bytes) {
+        nextBytes(bytes, 0, bytes.length);
+    }
+
+    void nextBytes(byte[] bytes, int offset, int length);
+
+    /**
+     * Writes bytes straight into the buffer from its position to its limit and moves the position to the limit
+     */
+    void nextBytes(ByteBuffer dst);
+}
@@ -0,0 +1,35 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Sink over an existing channel, see factory methods of {@link Sink}
+ */
+class ChannelSink implements Sink {
+    private final WritableByteChannel channel;
+    private final boolean closeChannel;
+    private final String description;
+
+    ChannelSink(WritableByteChannel channel, boolean closeChannel, String description) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.description = description;
+    }
+
+    @Override
+    public WritableByteChannel channel() {
+        return channel;
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closeChannel)
+            channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "Sink{" + description + "}";
+    }
+}
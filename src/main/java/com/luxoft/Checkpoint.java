@@ -0,0 +1,226 @@
+package com.luxoft;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Progress of a resumable job: byte ranges of the file, which are generated and forced to the device.
+ * Resumable jobs need a backend with random access, so the generator state at a range boundary is given by
+ * the algorithm, seed and offset, and the sidecar stays a few lines long however the job is split.
+ * Text format, same style as {@link ShardManifest}, adjacent ranges are merged:
+ * <pre>
+ * algorithm Random
+ * seed 0
+ * size 100000000
+ * range start end
+ * </pre>
+ * The sidecar is replaced atomically (forced temp file + atomic move), so a crash leaves the old or the new one.
+ */
+public class Checkpoint {
+    public static final int VALIDATE_CHUNK_SIZE = 1024 * 1024;
+
+    private final String algorithm;
+    private final long seed;
+    private final long size;
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    public Checkpoint(String algorithm, long seed, long size) {
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.size = size;
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Whether the checkpoint belongs to a job of the same sequence and size
+     */
+    public boolean matches(GeneratorBackend backend, long size) {
+        return algorithm.equals(backend.getAlgorithm()) && seed == backend.getSeed() && this.size == size;
+    }
+
+    public synchronized void add(long start, long end) {
+        Map.Entry<Long, Long> before = ranges.floorEntry(start);
+        if (before != null && before.getValue() >= start) {
+            start = before.getKey();
+            end = Math.max(end, before.getValue());
+        }
+        for (Map.Entry<Long, Long> after = ranges.ceilingEntry(start);
+             after != null && after.getKey() <= end; after = ranges.ceilingEntry(start)) {
+            end = Math.max(end, after.getValue());
+            ranges.remove(after.getKey());
+        }
+        ranges.put(start, end);
+    }
+
+    public synchronized void remove(long start, long end) {
+        List<Range> kept = new ArrayList<>();
+        Map.Entry<Long, Long> first = ranges.floorEntry(start);
+        Long from = first != null ? first.getKey() : start;
+        for (Map.Entry<Long, Long> range : new ArrayList<>(ranges.subMap(from, true, end, false).entrySet())) {
+            if (range.getValue() <= start)
+                continue;
+            ranges.remove(range.getKey());
+            if (range.getKey() < start)
+                kept.add(new Range(range.getKey(), start));
+            if (range.getValue() > end)
+                kept.add(new Range(end, range.getValue()));
+        }
+        kept.forEach(range -> ranges.put(range.getStart(), range.getEnd()));
+    }
+
+    public synchronized boolean contains(long start, long end) {
+        Map.Entry<Long, Long> range = ranges.floorEntry(start);
+        return range != null && range.getValue() >= end;
+    }
+
+    public synchronized long getCompletedBytes() {
+        return ranges.entrySet().stream().mapToLong(range -> range.getValue() - range.getKey()).sum();
+    }
+
+    /**
+     * Completed ranges in file order
+     */
+    public synchronized List<Range> getRanges() {
+        List<Range> result = new ArrayList<>();
+        ranges.forEach((start, end) -> result.add(new Range(start, end)));
+        return result;
+    }
+
+    /**
+     * Checks the tail of every range against the sequence, going back chunk by chunk while the file differs
+     * (e.g. it was truncated or its last pages were not durable), and drops the mismatched chunks.
+     * Cost depends on the lost bytes, not on the file size. Returns the number of dropped bytes.
+     * The backend must have random access, otherwise every checked chunk would regenerate the sequence up to it.
+     */
+    public synchronized long validate(FileChannel channel, GeneratorBackend backend) throws IOException {
+        if (!backend.isRandomAccess())
+            throw new IllegalArgumentException("Validation seeks every range tail, " + backend + " can only be generated in order");
+        long fileLength = channel.size();
+        long dropped = 0;
+        ByteBuffer actual = ByteBuffer.allocate(VALIDATE_CHUNK_SIZE);
+        ByteBuffer expected = ByteBuffer.allocate(VALIDATE_CHUNK_SIZE);
+        for (Range range : getRanges()) {
+            long end = range.getEnd();
+            while (end > range.getStart()) {
+                long start = Math.max(range.getStart(), end - VALIDATE_CHUNK_SIZE);
+                if (end <= fileLength && matches(channel, backend, start, end, actual, expected))
+                    break;
+                remove(start, end);
+                dropped += end - start;
+                end = start;
+            }
+        }
+        return dropped;
+    }
+
+    private static boolean matches(FileChannel channel, GeneratorBackend backend, long start, long end,
+                                   ByteBuffer actual, ByteBuffer expected) throws IOException {
+        int length = (int) (end - start);
+        actual.clear().limit(length);
+        for (long position = start; actual.hasRemaining(); ) {
+            int read = channel.read(actual, position);
+            if (read < 0)
+                return false;
+            position += read;
+        }
+        expected.clear().limit(length);
+        backend.atByte(start).nextBytes(expected);
+        return actual.flip().equals(expected.flip());
+    }
+
+    /**
+     * Writes the sidecar next to its temp copy, forces it and moves it over the old one atomically
+     */
+    public synchronized void write(Path path) throws IOException {
+        StringBuilder text = new StringBuilder();
+        text.append("algorithm ").append(algorithm).append('\n');
+        text.append("seed ").append(seed).append('\n');
+        text.append("size ").append(size).append('\n');
+        ranges.forEach((start, end) -> text.append("range ").append(start).append(' ').append(end).append('\n'));
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(text.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining())
+                channel.write(buffer);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    public static Checkpoint read(Path path) throws IOException {
+        String algorithm = GeneratorBackend.LCG;
+        long seed = 0;
+        long size = 0;
+        List<Range> ranges = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(" ");
+                switch (fields[0]) {
+                    case "algorithm" -> algorithm = fields[1];
+                    case "seed" -> seed = Long.parseLong(fields[1]);
+                    case "size" -> size = Long.parseLong(fields[1]);
+                    case "range" -> ranges.add(new Range(Long.parseLong(fields[1]), Long.parseLong(fields[2])));
+                    default -> throw new IOException("Unexpected line in checkpoint " + path + ": " + line);
+                }
+            }
+        }
+        Checkpoint checkpoint = new Checkpoint(algorithm, seed, size);
+        ranges.forEach(range -> checkpoint.add(range.getStart(), range.getEnd()));
+        return checkpoint;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return "Checkpoint{algorithm=" + algorithm + ", seed=" + seed + ", size=" + size
+                + ", completed=" + getCompletedBytes() + "}";
+    }
+
+    /**
+     * Bytes [start, end) of the file
+     */
+    public static class Range {
+        private final long start;
+        private final long end;
+
+        public Range(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public long getStart() {
+            return start;
+        }
+
+        public long getEnd() {
+            return end;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + start + ", " + end + ")";
+        }
+    }
+}
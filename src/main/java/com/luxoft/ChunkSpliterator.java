@@ -0,0 +1,89 @@
+package com.luxoft;
+
+import java.nio.ByteBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Splittable source of the sequence in chunks of chunkSize bytes (the last one may be shorter), in order.
+ * Every chunk is a read-only heap buffer, the split halves jump to their own generator state,
+ * so a parallel stream generates chunks independently and without boxing of single bytes.
+ * A backend without random access is not split, its stream generates all chunks in order.
+ */
+public class ChunkSpliterator implements Spliterator<ByteBuffer> {
+    private final GeneratorBackend backend;
+    private final long size;
+    private final int chunkSize;
+    private final long endChunk;
+    private long chunk;
+    private ByteGenerator generator;
+
+    public ChunkSpliterator(long seed, long size, int chunkSize) {
+        this(GeneratorBackend.lcg(seed), size, chunkSize);
+    }
+
+    public ChunkSpliterator(GeneratorBackend backend, long size, int chunkSize) {
+        this(backend, size, chunkSize, 0, (size + chunkSize - 1) / chunkSize);
+    }
+
+    private ChunkSpliterator(GeneratorBackend backend, long size, int chunkSize, long chunk, long endChunk) {
+        if (chunkSize <= 0)
+            throw new IllegalArgumentException("Chunk size must be positive, but was " + chunkSize);
+        this.backend = backend;
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.chunk = chunk;
+        this.endChunk = endChunk;
+    }
+
+    /**
+     * Stream of chunks of the first size bytes of Random(seed).nextBytes()
+     */
+    public static Stream<ByteBuffer> stream(long seed, long size, int chunkSize, boolean parallel) {
+        return stream(GeneratorBackend.lcg(seed), size, chunkSize, parallel);
+    }
+
+    /**
+     * Stream of chunks of the first size bytes of the backend's sequence
+     */
+    public static Stream<ByteBuffer> stream(GeneratorBackend backend, long size, int chunkSize, boolean parallel) {
+        return StreamSupport.stream(new ChunkSpliterator(backend, size, chunkSize), parallel);
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super ByteBuffer> action) {
+        if (chunk >= endChunk)
+            return false;
+        long start = chunk * chunkSize;
+        if (generator == null)
+            generator = backend.atByte(start);
+        byte[] bytes = new byte[(int) Math.min(chunkSize, size - start)];
+        generator.nextBytes(bytes);
+        chunk++;
+        action.accept(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+        return true;
+    }
+
+    @Override
+    public Spliterator<ByteBuffer> trySplit() {
+        if (endChunk - chunk < 2 || !backend.isRandomAccess())
+            return null;
+        long middle = chunk + (endChunk - chunk) / 2;
+        ChunkSpliterator prefix = new ChunkSpliterator(backend, size, chunkSize, chunk, middle);
+        chunk = middle;
+        generator = null;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return endChunk - chunk;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+    }
+}
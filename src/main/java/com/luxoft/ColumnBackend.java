@@ -0,0 +1,215 @@
+package com.luxoft;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * Binary column of values of one java.util.Random method: the sequence is the values of
+ * new Random(seed).nextInt() (or nextLong(), nextDouble(), nextGaussian()) called again and again,
+ * each written as an int, long or double of the given byte order. The LCG steps per value are the same as in Random,
+ * including the cached second value of nextGaussian() computed with StrictMath.
+ * Fixed-step columns jump to any value in O(log n). Gaussian values can only be generated in order,
+ * so {@link #isRandomAccess()} is false and the offset of atByte() costs O(offset).
+ * Algorithm name: Random.method.LE or Random.method.BE, e.g. Random.nextGaussian.BE.
+ */
+public final class ColumnBackend implements GeneratorBackend {
+    public static final String PREFIX = LCG + ".";
+    private static final double DOUBLE_UNIT = 0x1.0p-53;
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle INT_BE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.BIG_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_BE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.BIG_ENDIAN);
+
+    private final long seed;
+    private final ColumnType type;
+    private final ByteOrder order;
+
+    public ColumnBackend(long seed, ColumnType type, ByteOrder order) {
+        this.seed = seed;
+        this.type = type;
+        this.order = order;
+    }
+
+    /**
+     * Backend of an algorithm name as returned by {@link #getAlgorithm()}
+     */
+    public static ColumnBackend of(String algorithm, long seed) {
+        String[] parts = algorithm.split("\\.");
+        if (parts.length != 3 || !LCG.equals(parts[0]) || !("LE".equals(parts[2]) || "BE".equals(parts[2])))
+            throw new IllegalArgumentException("Column algorithm must be Random.method.LE or Random.method.BE, but was " + algorithm);
+        return new ColumnBackend(seed, ColumnType.ofMethod(parts[1]),
+                "LE".equals(parts[2]) ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    public ByteOrder getOrder() {
+        return order;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return PREFIX + type.getMethod() + (order == ByteOrder.LITTLE_ENDIAN ? ".LE" : ".BE");
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public boolean isRandomAccess() {
+        return type.isFixedSteps();
+    }
+
+    @Override
+    public ByteGenerator atByte(long byteOffset) {
+        ColumnGenerator generator = new ColumnGenerator();
+        long values = byteOffset / type.getBytes();
+        if (type.isFixedSteps()) {
+            generator.state = Lcg.skip(Lcg.initialState(seed), values * type.getSteps());
+        } else {
+            generator.state = Lcg.initialState(seed);
+            for (long i = 0; i < values; i++)
+                generator.nextValue();
+        }
+        int skipBytes = (int) (byteOffset % type.getBytes());
+        if (skipBytes > 0) {
+            generator.put(generator.pending, 0, generator.nextValue());
+            generator.pendingPosition = skipBytes;
+        }
+        return generator;
+    }
+
+    @Override
+    public RandomGenerator newRandomGenerator() {
+        return new Random(seed);
+    }
+
+    @Override
+    public String toString() {
+        return getAlgorithm() + "(" + seed + ")";
+    }
+
+    /**
+     * Values in their byte order, bytes left from the last value are kept for the next call
+     */
+    private final class ColumnGenerator implements ByteGenerator {
+        private final int width = type.getBytes();
+        private final boolean bigEndian = order == ByteOrder.BIG_ENDIAN;
+        private final byte[] pending = new byte[Long.BYTES];
+        private int pendingPosition = width;
+        private long state;
+        private boolean haveNextGaussian;
+        private double nextNextGaussian;
+
+        @Override
+        public void nextBytes(byte[] bytes, int offset, int length) {
+            int i = offset;
+            int end = offset + length;
+            while (pendingPosition < width && i < end)
+                bytes[i++] = pending[pendingPosition++];
+            for (int limit = end - width; i <= limit; i += width)
+                put(bytes, i, nextValue());
+            if (i < end) {
+                put(pending, 0, nextValue());
+                for (pendingPosition = 0; i < end; )
+                    bytes[i++] = pending[pendingPosition++];
+            }
+        }
+
+        @Override
+        public void nextBytes(ByteBuffer dst) {
+            int i = dst.position();
+            int end = dst.limit();
+            while (pendingPosition < width && i < end)
+                dst.put(i++, pending[pendingPosition++]);
+            ByteOrder dstOrder = dst.order();
+            dst.order(order);
+            for (int limit = end - width; i <= limit; i += width) {
+                if (width == Long.BYTES)
+                    dst.putLong(i, nextValue());
+                else
+                    dst.putInt(i, (int) nextValue());
+            }
+            dst.order(dstOrder);
+            if (i < end) {
+                put(pending, 0, nextValue());
+                for (pendingPosition = 0; i < end; )
+                    dst.put(i++, pending[pendingPosition++]);
+            }
+            dst.position(end);
+        }
+
+        /**
+         * Bits of the next value: the int of nextInt() or the long of nextLong(), doubles as raw long bits
+         */
+        long nextValue() {
+            switch (type) {
+                case INT:
+                    return nextInt();
+                case LONG:
+                    return ((long) nextInt() << 32) + nextInt();
+                case DOUBLE:
+                    return Double.doubleToRawLongBits(nextDouble());
+                default:
+                    return Double.doubleToRawLongBits(nextGaussian());
+            }
+        }
+
+        void put(byte[] bytes, int index, long value) {
+            if (width == Long.BYTES) {
+                if (bigEndian)
+                    LONG_BE.set(bytes, index, value);
+                else
+                    LONG_LE.set(bytes, index, value);
+            } else {
+                if (bigEndian)
+                    INT_BE.set(bytes, index, (int) value);
+                else
+                    INT_LE.set(bytes, index, (int) value);
+            }
+        }
+
+        private int nextInt() {
+            state = Lcg.nextState(state);
+            return (int) (state >>> 16);
+        }
+
+        private double nextDouble() {
+            state = Lcg.nextState(state);
+            int high = (int) (state >>> 22); // next(26)
+            state = Lcg.nextState(state);
+            int low = (int) (state >>> 21); // next(27)
+            return (((long) high << 27) + low) * DOUBLE_UNIT;
+        }
+
+        /**
+         * The polar method of Random.nextGaussian(): two values per accepted pair, the second one is cached
+         */
+        private double nextGaussian() {
+            if (haveNextGaussian) {
+                haveNextGaussian = false;
+                return nextNextGaussian;
+            }
+            double v1;
+            double v2;
+            double s;
+            do {
+                v1 = 2 * nextDouble() - 1;
+                v2 = 2 * nextDouble() - 1;
+                s = v1 * v1 + v2 * v2;
+            } while (s >= 1 || s == 0);
+            double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+            nextNextGaussian = v2 * multiplier;
+            haveNextGaussian = true;
+            return v1 * multiplier;
+        }
+    }
+}
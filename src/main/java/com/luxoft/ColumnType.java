@@ -0,0 +1,64 @@
+package com.luxoft;
+
+/**
+ * Primitive values of a binary column, each is one call of the java.util.Random method of the same name
+ */
+public enum ColumnType {
+    /**
+     * nextInt(), 4 bytes, one LCG step
+     */
+    INT("nextInt", Integer.BYTES, 1),
+    /**
+     * nextLong(), 8 bytes, two LCG steps
+     */
+    LONG("nextLong", Long.BYTES, 2),
+    /**
+     * nextDouble(), 8 bytes, two LCG steps
+     */
+    DOUBLE("nextDouble", Double.BYTES, 2),
+    /**
+     * nextGaussian(), 8 bytes. Values come in pairs, every pair takes 4 steps per rejected or accepted attempt,
+     * so the state of a value can't be computed by a jump
+     */
+    GAUSSIAN("nextGaussian", Double.BYTES, 0);
+
+    private final String method;
+    private final int bytes;
+    private final int steps;
+
+    ColumnType(String method, int bytes, int steps) {
+        this.method = method;
+        this.bytes = bytes;
+        this.steps = steps;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    /**
+     * Size of one value in bytes
+     */
+    public int getBytes() {
+        return bytes;
+    }
+
+    /**
+     * LCG steps per value, 0 if it varies
+     */
+    public int getSteps() {
+        return steps;
+    }
+
+    public boolean isFixedSteps() {
+        return steps > 0;
+    }
+
+    public static ColumnType ofMethod(String method) {
+        for (ColumnType type : values()) {
+            if (type.method.equals(method))
+                return type;
+        }
+        throw new IllegalArgumentException("Unknown column method " + method);
+    }
+}
@@ -0,0 +1,156 @@
+package com.luxoft;
+
+import com.sun.nio.file.ExtendedOpenOption;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Writes a file with O_DIRECT (ExtendedOpenOption.DIRECT), bypassing the page cache, so multi-GB outputs
+ * neither evict other data nor measure memcpy into the cache. O_DIRECT needs buffer addresses, file positions
+ * and lengths aligned to the block size, so the writer owns a reusable pool of block-aligned direct buffers.
+ * An unaligned tail is padded up to the block size and the file is truncated to its real size on close,
+ * with a durability other than NONE the truncated file is forced there too.
+ * If the file system does not support O_DIRECT (e.g. tmpfs), the file is written through the page cache.
+ */
+public class DirectFileWriter implements AutoCloseable {
+    private static final int MIN_BLOCK_SIZE = 4096;
+
+    private final FileChannel channel;
+    private final long size;
+    private final int blockSize;
+    private final boolean direct;
+    private final BlockingQueue<ByteBuffer> buffers;
+    private Durability durability = Durability.NONE;
+    private Metrics metrics = Metrics.NOOP;
+
+    /**
+     * @param bufferSize size of every pooled buffer, rounded up to the block size
+     * @param bufferCount number of pooled buffers, i.e. how many writes may be prepared at once
+     */
+    public DirectFileWriter(Path path, long size, int bufferSize, int bufferCount) throws IOException {
+        if (bufferSize <= 0 || bufferCount <= 0)
+            throw new IllegalArgumentException("Buffer size and count must be positive");
+        this.size = size;
+        this.blockSize = blockSize(path);
+        FileChannel directChannel = null;
+        try {
+            directChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING, ExtendedOpenOption.DIRECT);
+        } catch (UnsupportedOperationException | IOException ex) {
+            System.out.println("O_DIRECT is not supported for " + path + ", writing through page cache: " + ex.getMessage());
+        }
+        this.direct = directChannel != null;
+        this.channel = direct ? directChannel : FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+        int alignedSize = alignUp(bufferSize);
+        this.buffers = new ArrayBlockingQueue<>(bufferCount);
+        for (int i = 0; i < bufferCount; i++)
+            buffers.add(ByteBuffer.allocateDirect(alignedSize + blockSize).alignedSlice(blockSize));
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * With any durability but NONE close() forces the file after cutting the padding off,
+     * so a crash cannot leave the file at its block-aligned length
+     */
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+
+    /**
+     * Whether writes really bypass the page cache
+     */
+    public boolean isDirect() {
+        return direct;
+    }
+
+    public int getBlockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Takes a cleared aligned buffer from the pool, waits if all of them are in use.
+     * The buffer comes back to the pool by write(), or by release() if it is not written.
+     */
+    public ByteBuffer acquire() {
+        try {
+            return buffers.take().clear();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a buffer", e);
+        }
+    }
+
+    public void release(ByteBuffer buffer) {
+        buffers.add(buffer);
+    }
+
+    /**
+     * Writes the buffer from 0 to its position at the file position, which must be aligned to the block size,
+     * and returns the buffer to the pool. A length, which is not a multiple of the block size, is allowed only
+     * for the tail of the file: it is padded here and cut off on close.
+     */
+    public void write(ByteBuffer buffer, long position) throws IOException {
+        try {
+            if (position % blockSize != 0)
+                throw new IllegalArgumentException("Position " + position + " is not aligned to block size " + blockSize);
+            long tWrite = metrics.time();
+            JfrEvents.RegionWritten event = new JfrEvents.RegionWritten();
+            event.begin();
+            int length = buffer.position();
+            buffer.limit(alignUp(length)).position(0);
+            for (long filePosition = position; buffer.hasRemaining(); )
+                filePosition += channel.write(buffer, filePosition);
+            event.end(position, length);
+            metrics.recordPhase(Phase.WRITE, tWrite, length);
+        } finally {
+            release(buffer);
+        }
+    }
+
+    /**
+     * O_DIRECT skips the page cache, but not the device cache and file metadata, so durability still needs fsync
+     */
+    public void force() throws IOException {
+        long tForce = metrics.time();
+        channel.force(true);
+        metrics.recordPhase(Phase.FORCE, tForce, 0);
+    }
+
+    /**
+     * Cuts the padding of the tail off, forces the file if durability is set and closes it
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.truncate(size);
+            if (durability != Durability.NONE)
+                force();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private int alignUp(int length) {
+        return (length + blockSize - 1) / blockSize * blockSize;
+    }
+
+    private static int blockSize(Path path) {
+        try {
+            Path parent = path.toAbsolutePath().getParent();
+            return (int) Math.max(MIN_BLOCK_SIZE, Files.getFileStore(parent).getBlockSize());
+        } catch (IOException | UnsupportedOperationException ex) {
+            return MIN_BLOCK_SIZE;
+        }
+    }
+}
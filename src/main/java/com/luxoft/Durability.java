@@ -0,0 +1,19 @@
+package com.luxoft;
+
+/**
+ * When data of mmap writers is forced to the storage device
+ */
+public enum Durability {
+    /**
+     * Dirty pages are flushed by OS whenever it wants
+     */
+    NONE,
+    /**
+     * File is forced once, when the writer is closed
+     */
+    FORCE_AT_END,
+    /**
+     * Written pages are forced every N bytes and the file is forced once more at the end
+     */
+    PERIODIC
+}
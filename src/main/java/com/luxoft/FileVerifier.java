@@ -0,0 +1,141 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checks a file against the Random(seed).nextBytes() sequence without loading it into heap.
+ * The file is mapped chunk by chunk, expected bytes of every chunk are regenerated in parallel from the chunk's
+ * LCG state and compared with the vectorized ByteBuffer.mismatch().
+ * A verifier owns a fixed pool of direct chunk buffers, one per parallel task, which are reused by every call,
+ * so memory stays constant however many files are verified. Each task takes one buffer and the next chunks
+ * in file order until the file ends or an earlier mismatch is found.
+ * A backend without random access is checked by one task, whose generator runs through the sequence in order.
+ */
+public final class FileVerifier {
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static FileVerifier shared;
+
+    private final int parallelism;
+    private final BlockingQueue<ByteBuffer> buffers;
+
+    /**
+     * @param parallelism number of chunks checked at once, i.e. of pooled buffers
+     */
+    public FileVerifier(int parallelism) {
+        if (parallelism <= 0)
+            throw new IllegalArgumentException("Parallelism must be positive");
+        this.parallelism = parallelism;
+        this.buffers = new ArrayBlockingQueue<>(parallelism);
+        for (int i = 0; i < parallelism; i++)
+            buffers.add(ByteBuffer.allocateDirect(DEFAULT_CHUNK_SIZE));
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public static VerificationResult verify(Path path, long seed, long size) throws IOException {
+        return verify(path, seed, size, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Checks the file with the verifier shared by all static calls
+     */
+    public static VerificationResult verify(Path path, long seed, long size, ExecutorService executor) throws IOException {
+        return shared().verify(path, GeneratorBackend.lcg(seed), size, executor);
+    }
+
+    private static synchronized FileVerifier shared() {
+        if (shared == null)
+            shared = new FileVerifier(Runtime.getRuntime().availableProcessors());
+        return shared;
+    }
+
+    /**
+     * Checks the file against the sequence of any backend
+     */
+    public VerificationResult verify(Path path, GeneratorBackend backend, long size, ExecutorService executor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long fileLength = channel.size();
+            long comparedLength = Math.min(fileLength, size);
+            AtomicLong firstMismatch = new AtomicLong(fileLength == size ? Long.MAX_VALUE : comparedLength);
+            AtomicLong nextChunk = new AtomicLong();
+            int tasks = backend.isRandomAccess() ? parallelism : 1;
+
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < tasks; i++) {
+                futures.add(CompletableFuture.runAsync(() -> {
+                    ByteBuffer expected = acquire();
+                    ByteGenerator generator = null;
+                    long generatorPosition = -1;
+                    try {
+                        for (long chunkStart = nextChunk.getAndAdd(DEFAULT_CHUNK_SIZE);
+                             chunkStart < comparedLength && chunkStart < firstMismatch.get(); // no earlier mismatch yet
+                             chunkStart = nextChunk.getAndAdd(DEFAULT_CHUNK_SIZE)) {
+                            int length = (int) Math.min(DEFAULT_CHUNK_SIZE, comparedLength - chunkStart);
+                            expected.clear().limit(length);
+                            if (generatorPosition != chunkStart) // the next chunk of the same task continues without seeking
+                                generator = backend.atByte(chunkStart);
+                            generator.nextBytes(expected);
+                            generatorPosition = chunkStart + length;
+                            expected.flip();
+                            int mismatch = compare(channel, chunkStart, expected);
+                            if (mismatch >= 0)
+                                firstMismatch.accumulateAndGet(chunkStart + mismatch, Math::min);
+                        }
+                    } finally {
+                        buffers.add(expected);
+                    }
+                }, executor));
+            }
+            try {
+                futures.forEach(CompletableFuture::join);
+            } catch (RuntimeException ex) {
+                if (ex.getCause() instanceof UncheckedIOException)
+                    throw ((UncheckedIOException) ex.getCause()).getCause();
+                throw ex;
+            }
+            long result = firstMismatch.get();
+            return new VerificationResult(size, result == Long.MAX_VALUE ? -1 : result);
+        }
+    }
+
+    /**
+     * Takes a buffer of the pool, waits only if another call of this verifier runs at the same time
+     */
+    private ByteBuffer acquire() {
+        try {
+            return buffers.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a buffer", e);
+        }
+    }
+
+    private static int compare(FileChannel channel, long start, ByteBuffer expected) {
+        MappedByteBuffer actual = null;
+        try {
+            actual = channel.map(FileChannel.MapMode.READ_ONLY, start, expected.remaining());
+            return actual.mismatch(expected);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (actual != null)
+                MappedFileWriter.unmap(actual);
+        }
+    }
+}
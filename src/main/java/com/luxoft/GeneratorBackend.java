@@ -0,0 +1,66 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.random.RandomGenerator;
+
+/**
+ * Algorithm of the generated sequence. Every byte offset of the sequence can be reached independently,
+ * so all write strategies split it between threads, chunks or processes the same way for any backend.
+ * The exception are backends without {@link #isRandomAccess()}, which are generated in order by one generator.
+ * {@link #LCG} (the default) is java.util.Random, i.e. the bytes of Random(seed).nextBytes(),
+ * Random.method.LE / Random.method.BE are binary columns of Random values, see {@link ColumnBackend},
+ * other names are algorithms of the Java 17 RandomGeneratorFactory, see {@link RandomGeneratorBackend}.
+ */
+public interface GeneratorBackend {
+    String LCG = "Random";
+
+    static GeneratorBackend of(String algorithm, long seed) {
+        if (LCG.equals(algorithm))
+            return new LcgBackend(seed);
+        if (algorithm.startsWith(ColumnBackend.PREFIX))
+            return ColumnBackend.of(algorithm, seed);
+        return new RandomGeneratorBackend(algorithm, seed);
+    }
+
+    static GeneratorBackend lcg(long seed) {
+        return new LcgBackend(seed);
+    }
+
+    String getAlgorithm();
+
+    long getSeed();
+
+    /**
+     * Generator positioned at the given byte offset of the sequence
+     */
+    ByteGenerator atByte(long byteOffset);
+
+    /**
+     * Whether atByte() of any offset is cheap. If not, the sequence should be generated in order by one thread,
+     * e.g. one generator of a {@link RingPipeline}: parallel Worker methods and {@link FileVerifier} do so,
+     * methods, which must seek (shards, partitions, checkpoints, {@link SeededByteSource}), reject such a backend.
+     */
+    default boolean isRandomAccess() {
+        return true;
+    }
+
+    /**
+     * Generator of single values (nextInt(), nextDouble()...) of the same algorithm and seed
+     */
+    RandomGenerator newRandomGenerator();
+
+    /**
+     * Writes the metadata of an output of the given size, in the same text format as {@link ShardManifest}:
+     * <pre>
+     * algorithm Random
+     * seed 0
+     * size 100000000
+     * </pre>
+     */
+    default void writeMetadata(Path path, long size) throws IOException {
+        Files.write(path, List.of("algorithm " + getAlgorithm(), "seed " + getSeed(), "size " + size));
+    }
+}
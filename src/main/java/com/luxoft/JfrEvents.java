@@ -0,0 +1,137 @@
+package com.luxoft;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events of Worker hot paths. All of them are disabled by default,
+ * enable them in the recording settings, e.g.
+ * -XX:StartFlightRecording:filename=worker.jfr,+com.luxoft.BatchGenerated#enabled=true,+com.luxoft.Job#enabled=true
+ * Usage: new event, begin() before the work, end(...) after it. Without an active recording end() does nothing.
+ */
+public final class JfrEvents {
+
+    private JfrEvents() {
+    }
+
+    @Name("com.luxoft.Job")
+    @Label("Worker Job")
+    @Category({"Worker"})
+    @Description("One generate or write method of Worker from start to end")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class Job extends Event {
+        @Label("Operation")
+        String operation;
+
+        @Label("File Size")
+        @DataAmount
+        long size;
+
+        public void end(String operation, long size) {
+            if (shouldCommit()) {
+                this.operation = operation;
+                this.size = size;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.luxoft.BatchGenerated")
+    @Label("Batch Generated")
+    @Category({"Worker"})
+    @Description("Bytes of the sequence generated into a buffer")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class BatchGenerated extends Event {
+        @Label("Offset")
+        long offset;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        public void end(long offset, long size) {
+            if (shouldCommit()) {
+                this.offset = offset;
+                this.size = size;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.luxoft.RegionMapped")
+    @Label("Region Mapped")
+    @Category({"Worker"})
+    @Description("Region of the file mapped into memory")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class RegionMapped extends Event {
+        @Label("Offset")
+        long offset;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        public void end(long offset, long size) {
+            if (shouldCommit()) {
+                this.offset = offset;
+                this.size = size;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.luxoft.RegionWritten")
+    @Label("Region Written")
+    @Category({"Worker"})
+    @Description("Bytes copied into a mapped region or written to a channel")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class RegionWritten extends Event {
+        @Label("Offset")
+        long offset;
+
+        @Label("Size")
+        @DataAmount
+        long size;
+
+        public void end(long offset, long size) {
+            if (shouldCommit()) {
+                this.offset = offset;
+                this.size = size;
+                commit();
+            }
+        }
+    }
+
+    @Name("com.luxoft.PipelineStall")
+    @Label("Pipeline Stall")
+    @Category({"Worker"})
+    @Description("Generator or writer waited for a queue or a ring slot")
+    @Enabled(false)
+    @StackTrace(false)
+    public static class PipelineStall extends Event {
+        @Label("Stage")
+        String stage;
+
+        @Label("Offset")
+        @Description("Offset of the batch, which the thread waited for")
+        long offset;
+
+        public void end(String stage, long offset) {
+            if (shouldCommit()) {
+                this.stage = stage;
+                this.offset = offset;
+                commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.luxoft;
+
+import javax.management.*;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes {@link MetricsRegistry} as a read-only MBean, every number of the snapshot is an attribute
+ * named by its path, e.g. "phases.GENERATE.bytesPerSecond"
+ */
+public class JmxExporter implements DynamicMBean {
+    public static final String DEFAULT_NAME = "com.luxoft:type=WorkerMetrics";
+
+    private final MetricsRegistry registry;
+
+    public JmxExporter(MetricsRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static ObjectName register(MetricsRegistry registry, String name) throws JMException {
+        ObjectName objectName = new ObjectName(name);
+        ManagementFactory.getPlatformMBeanServer().registerMBean(new JmxExporter(registry), objectName);
+        return objectName;
+    }
+
+    public static void unregister(ObjectName objectName) throws JMException {
+        ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+    }
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Object value = attributes().get(attribute);
+        if (value == null)
+            throw new AttributeNotFoundException(attribute);
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] names) {
+        Map<String, Object> attributes = attributes();
+        AttributeList list = new AttributeList();
+        for (String name : names) {
+            if (attributes.containsKey(name))
+                list.add(new Attribute(name, attributes.get(name)));
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only: " + attribute.getName());
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        if ("toJson".equals(actionName))
+            return JsonExporter.toJson(registry);
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        MBeanAttributeInfo[] attributeInfos = attributes().entrySet().stream()
+                .map(entry -> new MBeanAttributeInfo(entry.getKey(), entry.getValue().getClass().getName(),
+                        entry.getKey(), true, false, false))
+                .toArray(MBeanAttributeInfo[]::new);
+        MBeanOperationInfo toJson = new MBeanOperationInfo("toJson", "All metrics as JSON",
+                new MBeanParameterInfo[0], String.class.getName(), MBeanOperationInfo.INFO);
+        return new MBeanInfo(getClass().getName(), "Worker metrics", attributeInfos, null,
+                new MBeanOperationInfo[] {toJson}, null);
+    }
+
+    private Map<String, Object> attributes() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        flatten("", registry.snapshot(), result);
+        return result;
+    }
+
+    private static void flatten(String prefix, Map<?, ?> map, Map<String, Object> result) {
+        map.forEach((key, value) -> {
+            String name = prefix.isEmpty() ? String.valueOf(key) : prefix + "." + key;
+            if (value instanceof Map)
+                flatten(name, (Map<?, ?>) value, result);
+            else
+                result.put(name, value);
+        });
+    }
+}
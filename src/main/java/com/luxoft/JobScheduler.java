@@ -0,0 +1,257 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+/**
+ * Writes many files ({@link JobSpec}) over two shared pools instead of a Worker with its own pool and heap array per file.
+ * Every file is split into chunks, a chunk is generated into a reusable direct buffer on the CPU pool and then written
+ * on the I/O pool, whose size is the maximum number of concurrent writes.
+ * Buffers of all chunks in flight fit into the memory budget: submit() blocks, when the budget is used up,
+ * so generation runs ahead of writing only as far as memory allows and writers always have the next chunk ready.
+ * Chunks are submitted in file order, which bounds how many files are open at a time. The chunks of one file are
+ * positional writes, which may run concurrently on the I/O pool and complete in any order.
+ * In {@link ThreadMode#VIRTUAL} mode every write (and file open) runs in its own virtual thread and a semaphore limits
+ * concurrent writes, generation stays on the bounded CPU pool. It pays off for huge numbers of small files.
+ */
+public class JobScheduler implements AutoCloseable {
+    public static final int DEFAULT_CHUNK_SIZE = 1024 * 1024;
+
+    private final int chunkSize;
+    private final long memoryBudget;
+    private final ExecutorService cpuPool;
+    private final ExecutorService ioPool;
+    private final Semaphore memory;
+    private final Semaphore writes;
+    private final Queue<ByteBuffer> buffers = new ConcurrentLinkedQueue<>();
+    private final AtomicLong inFlightBytes = new AtomicLong();
+    private final AtomicLong maxInFlightBytes = new AtomicLong();
+    private Metrics metrics = Metrics.NOOP;
+
+    public JobScheduler(int threads, int maxConcurrentWrites, long memoryBudget) {
+        this(threads, maxConcurrentWrites, memoryBudget, DEFAULT_CHUNK_SIZE);
+    }
+
+    public JobScheduler(int threads, int maxConcurrentWrites, long memoryBudget, int chunkSize) {
+        this(threads, maxConcurrentWrites, memoryBudget, chunkSize, ThreadMode.PLATFORM);
+    }
+
+    public JobScheduler(int threads, int maxConcurrentWrites, long memoryBudget, int chunkSize, ThreadMode threadMode) {
+        if (threads <= 0 || maxConcurrentWrites <= 0)
+            throw new IllegalArgumentException("Number of threads and concurrent writes must be positive");
+        if (chunkSize <= 0 || memoryBudget < chunkSize)
+            throw new IllegalArgumentException("Memory budget " + memoryBudget + " must hold at least one chunk of " + chunkSize);
+        this.chunkSize = chunkSize;
+        this.memoryBudget = memoryBudget;
+        this.cpuPool = Executors.newFixedThreadPool(threads);
+        this.ioPool = threadMode == ThreadMode.VIRTUAL
+                ? VirtualThreads.newPerTaskExecutor(threadMode)
+                : Executors.newFixedThreadPool(maxConcurrentWrites);
+        this.writes = new Semaphore(maxConcurrentWrites);
+        this.memory = new Semaphore((int) Math.min(Integer.MAX_VALUE, memoryBudget / chunkSize));
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? Metrics.NOOP : metrics;
+    }
+
+    /**
+     * Starts the job and returns the future of its completion.
+     * Blocks until all chunks of the job got memory, which is the backpressure for the caller.
+     */
+    public CompletableFuture<Void> submit(JobSpec spec) throws IOException {
+        Job job = new Job(spec);
+        if (spec.getSize() == 0) {
+            job.start();
+            CompletableFuture.runAsync(job::channel, ioPool).whenComplete((ignored, failure) -> job.end(failure));
+        }
+        for (long start = 0; start < spec.getSize() && !job.isFailed(); start += chunkSize) {
+            long chunkStart = start;
+            int length = (int) Math.min(chunkSize, spec.getSize() - start);
+            ByteBuffer buffer;
+            try {
+                buffer = acquire();
+            } catch (IOException ex) {
+                job.end(ex);
+                throw ex;
+            }
+            job.start();
+            CompletableFuture.supplyAsync(() -> generate(job, chunkStart, buffer, length), cpuPool)
+                    .thenAcceptAsync(ready -> write(job, chunkStart, ready), ioPool)
+                    .whenComplete((ignored, failure) -> {
+                        release(buffer);
+                        job.end(failure);
+                    });
+        }
+        job.end(null); // all chunks are submitted
+        return job.done;
+    }
+
+    /**
+     * Runs all jobs of the stream and waits for them. Throws the first failure after all jobs ended.
+     */
+    public void runAll(Stream<JobSpec> specs) throws IOException {
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (JobSpec spec : (Iterable<JobSpec>) specs::iterator)
+            futures.add(submit(spec));
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException ex) {
+            Throwable cause = ex.getCause() instanceof UncheckedIOException ? ex.getCause().getCause() : ex.getCause();
+            if (cause instanceof IOException)
+                throw (IOException) cause;
+            throw ex;
+        }
+    }
+
+    /**
+     * Peak size of chunk buffers in flight, never exceeds the memory budget
+     */
+    public long getMaxInFlightBytes() {
+        return maxInFlightBytes.get();
+    }
+
+    public long getMemoryBudget() {
+        return memoryBudget;
+    }
+
+    @Override
+    public void close() {
+        cpuPool.shutdown();
+        ioPool.shutdown();
+    }
+
+    private ByteBuffer generate(Job job, long start, ByteBuffer buffer, int length) {
+        long tBatch = metrics.time();
+        JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+        event.begin();
+        buffer.clear().limit(length);
+        LcgRandom.atByte(job.spec.getSeed(), start).nextBytes(buffer);
+        buffer.flip();
+        event.end(start, length);
+        metrics.recordPhase(Phase.GENERATE, tBatch, length);
+        metrics.recordBatch(tBatch);
+        return buffer;
+    }
+
+    private void write(Job job, long start, ByteBuffer buffer) {
+        if (job.isFailed()) // another chunk of the job failed
+            return;
+        writes.acquireUninterruptibly();
+        long tWrite = metrics.time();
+        JfrEvents.RegionWritten event = new JfrEvents.RegionWritten();
+        event.begin();
+        int length = buffer.remaining();
+        try {
+            FileChannel channel = job.channel();
+            for (long position = start; buffer.hasRemaining(); )
+                position += channel.write(buffer, position);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            writes.release();
+        }
+        event.end(start, length);
+        metrics.recordPhase(Phase.WRITE, tWrite, length);
+    }
+
+    private ByteBuffer acquire() throws IOException {
+        try {
+            memory.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for memory budget", e);
+        }
+        long inFlight = inFlightBytes.addAndGet(chunkSize);
+        maxInFlightBytes.accumulateAndGet(inFlight, Math::max);
+        metrics.recordQueueDepth(inFlight / chunkSize);
+        ByteBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : ByteBuffer.allocateDirect(chunkSize);
+    }
+
+    private void release(ByteBuffer buffer) {
+        buffers.offer(buffer);
+        inFlightBytes.addAndGet(-chunkSize);
+        memory.release();
+    }
+
+    /**
+     * The channel is closed and the job completed only when no chunk of it is in flight any more,
+     * so a failed chunk never closes the file under the writes of other chunks. The first failure is reported.
+     */
+    private static class Job {
+        private final JobSpec spec;
+        private final AtomicInteger pending = new AtomicInteger(1); // chunks in flight + 1 while submit() adds chunks
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private FileChannel channel;
+
+        Job(JobSpec spec) {
+            this.spec = spec;
+        }
+
+        void start() {
+            pending.incrementAndGet();
+        }
+
+        /**
+         * A chunk (or the submission) ended, with null if it succeeded
+         */
+        void end(Throwable chunkFailure) {
+            if (chunkFailure != null)
+                failure.compareAndSet(null, chunkFailure instanceof CompletionException ? chunkFailure.getCause() : chunkFailure);
+            if (pending.decrementAndGet() == 0)
+                finish();
+        }
+
+        boolean isFailed() {
+            return failure.get() != null;
+        }
+
+        /**
+         * The file is opened by the first write, so the caller of submit() never blocks on it
+         */
+        synchronized FileChannel channel() {
+            if (channel == null) {
+                try {
+                    channel = FileChannel.open(spec.getPath(),
+                            StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            return channel;
+        }
+
+        private synchronized void finish() {
+            Throwable failure = this.failure.get();
+            try {
+                if (channel != null)
+                    channel.close();
+            } catch (IOException e) {
+                if (failure == null)
+                    failure = e;
+            }
+            if (failure == null)
+                done.complete(null);
+            else
+                done.completeExceptionally(failure);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.luxoft;
+
+import java.nio.file.Path;
+
+/**
+ * One file of a batch: the first size bytes of Random(seed).nextBytes() written to path.
+ * Scheduler jobs are LCG-only ({@link GeneratorBackend#LCG}), other backends and columns are written by a {@link Worker}.
+ */
+public class JobSpec {
+    private final long seed;
+    private final long size;
+    private final Path path;
+
+    public JobSpec(long seed, long size, Path path) {
+        if (size < 0)
+            throw new IllegalArgumentException("Size must not be negative, but was " + size);
+        this.seed = seed;
+        this.size = size;
+        this.path = path;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    @Override
+    public String toString() {
+        return "JobSpec{seed=" + seed + ", size=" + size + ", path=" + path + "}";
+    }
+}
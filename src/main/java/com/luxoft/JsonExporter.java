@@ -0,0 +1,69 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Dumps {@link MetricsRegistry#snapshot()} as JSON
+ */
+public final class JsonExporter {
+
+    private JsonExporter() {
+    }
+
+    public static String toJson(MetricsRegistry registry) {
+        StringBuilder json = new StringBuilder();
+        append(json, registry.snapshot(), "");
+        return json.toString();
+    }
+
+    public static void write(MetricsRegistry registry, Path path) throws IOException {
+        Files.writeString(path, toJson(registry), StandardCharsets.UTF_8);
+    }
+
+    static void append(StringBuilder json, Object value, String indent) {
+        if (value instanceof Map) {
+            Map<?, ?> map = (Map<?, ?>) value;
+            if (map.isEmpty()) {
+                json.append("{}");
+                return;
+            }
+            json.append("{\n");
+            String innerIndent = indent + "  ";
+            for (Iterator<? extends Map.Entry<?, ?>> it = map.entrySet().iterator(); it.hasNext(); ) {
+                Map.Entry<?, ?> entry = it.next();
+                json.append(innerIndent);
+                appendString(json, String.valueOf(entry.getKey()));
+                json.append(": ");
+                append(json, entry.getValue(), innerIndent);
+                json.append(it.hasNext() ? ",\n" : "\n");
+            }
+            json.append(indent).append('}');
+        } else if (value instanceof Double && !Double.isFinite((Double) value)) {
+            json.append("null");
+        } else if (value instanceof Number || value instanceof Boolean) {
+            json.append(value);
+        } else if (value == null) {
+            json.append("null");
+        } else {
+            appendString(json, value.toString());
+        }
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\')
+                json.append('\\').append(c);
+            else if (c < 0x20)
+                json.append(String.format("\\u%04x", (int) c));
+            else
+                json.append(c);
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,58 @@
+package com.luxoft;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free histogram of nanosecond latencies with power-of-two buckets
+ */
+public class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value)); // bucket b holds [2^(b-1), 2^b)
+        count.increment();
+        sum.add(value);
+        max.accumulate(value);
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Upper bound of the bucket, which contains the given quantile
+     */
+    public long getPercentile(double quantile) {
+        long total = getCount();
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += buckets.get(bucket);
+            if (seen >= rank && seen > 0)
+                return bucket == 0 ? 0 : Math.min((1L << bucket) - 1, max.get());
+        }
+        return max.get();
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        long total = getCount();
+        result.put("count", total);
+        result.put("meanNanos", total == 0 ? 0 : sum.sum() / total);
+        result.put("p50Nanos", getPercentile(0.5));
+        result.put("p90Nanos", getPercentile(0.9));
+        result.put("p99Nanos", getPercentile(0.99));
+        result.put("maxNanos", max.get());
+        return result;
+    }
+}
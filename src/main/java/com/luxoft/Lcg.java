@@ -0,0 +1,61 @@
+package com.luxoft;
+
+/**
+ * The 48-bit linear congruential generator used by java.util.Random.
+ * Allows to jump to the state of any byte offset of the Random(seed).nextBytes() stream in O(log n),
+ * so every batch can be generated independently, without shared state.
+ */
+public final class Lcg {
+    public static final long MULTIPLIER = 0x5DEECE66DL;
+    public static final long ADDEND = 0xBL;
+    public static final long MASK = (1L << 48) - 1;
+
+    private Lcg() {
+    }
+
+    /**
+     * Same scrambling as Random(seed) does in constructor
+     */
+    public static long initialState(long seed) {
+        return (seed ^ MULTIPLIER) & MASK;
+    }
+
+    public static long nextState(long state) {
+        return (state * MULTIPLIER + ADDEND) & MASK;
+    }
+
+    /**
+     * Advances state by the given number of steps (calls of next()) in O(log steps)
+     */
+    public static long skip(long state, long steps) {
+        long accMultiplier = 1;
+        long accAddend = 0;
+        long curMultiplier = MULTIPLIER;
+        long curAddend = ADDEND;
+        while (steps > 0) {
+            if ((steps & 1) != 0) {
+                accMultiplier *= curMultiplier;
+                accAddend = accAddend * curMultiplier + curAddend;
+            }
+            curAddend = (curMultiplier + 1) * curAddend;
+            curMultiplier *= curMultiplier;
+            steps >>>= 1;
+        }
+        return (accMultiplier * state + accAddend) & MASK;
+    }
+
+    /**
+     * State from which the next nextInt() gives the int containing the byte with given offset
+     */
+    public static long stateAtByte(long seed, long byteOffset) {
+        return skip(initialState(seed), byteOffset / (Integer.SIZE / Byte.SIZE));
+    }
+
+    /**
+     * Fills bytes[offset, offset + length) with bytes [streamOffset, streamOffset + length)
+     * of the sequence, which new Random(seed).nextBytes() generates.
+     */
+    public static void nextBytes(long seed, long streamOffset, byte[] bytes, int offset, int length) {
+        LcgRandom.atByte(seed, streamOffset).nextBytes(bytes, offset, length);
+    }
+}
@@ -0,0 +1,40 @@
+package com.luxoft;
+
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+/**
+ * The default backend: the sequence of Random(seed).nextBytes(), any offset is reached by the O(log n) LCG skip
+ */
+public final class LcgBackend implements GeneratorBackend {
+    private final long seed;
+
+    public LcgBackend(long seed) {
+        this.seed = seed;
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return LCG;
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    @Override
+    public ByteGenerator atByte(long byteOffset) {
+        return LcgRandom.atByte(seed, byteOffset);
+    }
+
+    @Override
+    public RandomGenerator newRandomGenerator() {
+        return new Random(seed);
+    }
+
+    @Override
+    public String toString() {
+        return LCG + "(" + seed + ")";
+    }
+}
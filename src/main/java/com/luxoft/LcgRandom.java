@@ -0,0 +1,126 @@
+package com.luxoft;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Single-thread replacement of java.util.Random for the byte stream of Random(seed).nextBytes().
+ * The 48-bit seed lives in a plain long (no AtomicLong CAS per step), the loop writes 8 bytes per iteration.
+ * Unlike Random.nextBytes(), bytes left from the last int are kept for the next call,
+ * so any sequence of calls gives one continuous stream.
+ * Not thread-safe: every thread should use its own instance (see {@link #atByte(long, long)}).
+ */
+public final class LcgRandom implements ByteGenerator {
+    private static final VarHandle INT_LE = MethodHandles.byteArrayViewVarHandle(int[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final int INT_BYTES = Integer.SIZE / Byte.SIZE;
+
+    private long state;
+    private int pending;
+    private int pendingCount;
+
+    public LcgRandom(long seed) {
+        this.state = Lcg.initialState(seed);
+    }
+
+    private LcgRandom() {
+    }
+
+    /**
+     * Generator positioned at the given byte offset of the Random(seed).nextBytes() stream
+     */
+    public static LcgRandom atByte(long seed, long byteOffset) {
+        LcgRandom generator = new LcgRandom();
+        generator.state = Lcg.stateAtByte(seed, byteOffset);
+        int skipBytes = (int) (byteOffset % INT_BYTES);
+        if (skipBytes > 0) {
+            generator.state = Lcg.nextState(generator.state);
+            generator.pending = (int) (generator.state >>> 16) >> (skipBytes * Byte.SIZE);
+            generator.pendingCount = INT_BYTES - skipBytes;
+        }
+        return generator;
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes) {
+        nextBytes(bytes, 0, bytes.length);
+    }
+
+    @Override
+    public void nextBytes(byte[] bytes, int offset, int length) {
+        int i = offset;
+        int end = offset + length;
+        while (pendingCount > 0 && i < end) {
+            bytes[i++] = (byte) pending;
+            pending >>= Byte.SIZE;
+            pendingCount--;
+        }
+
+        long s = state;
+        for (int limit = end - Long.BYTES; i <= limit; i += Long.BYTES) {
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            long low = (s >>> 16) & 0xFFFFFFFFL;
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            long high = (s >>> 16) << Integer.SIZE;
+            LONG_LE.set(bytes, i, high | low);
+        }
+        if (i <= end - INT_BYTES) {
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            INT_LE.set(bytes, i, (int) (s >>> 16));
+            i += INT_BYTES;
+        }
+        if (i < end) {
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            int rnd = (int) (s >>> 16);
+            for (pendingCount = INT_BYTES; i < end; pendingCount--, rnd >>= Byte.SIZE) {
+                bytes[i++] = (byte) rnd;
+            }
+            pending = rnd;
+        }
+        state = s;
+    }
+
+    /**
+     * Writes bytes straight into the buffer from its position to its limit (no intermediate byte[]).
+     * For a MappedByteBuffer it means generating directly into the file pages.
+     */
+    @Override
+    public void nextBytes(ByteBuffer dst) {
+        int i = dst.position();
+        int end = dst.limit();
+        while (pendingCount > 0 && i < end) {
+            dst.put(i++, (byte) pending);
+            pending >>= Byte.SIZE;
+            pendingCount--;
+        }
+
+        ByteOrder order = dst.order();
+        dst.order(ByteOrder.LITTLE_ENDIAN);
+        long s = state;
+        for (int limit = end - Long.BYTES; i <= limit; i += Long.BYTES) {
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            long low = (s >>> 16) & 0xFFFFFFFFL;
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            long high = (s >>> 16) << Integer.SIZE;
+            dst.putLong(i, high | low);
+        }
+        if (i <= end - INT_BYTES) {
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            dst.putInt(i, (int) (s >>> 16));
+            i += INT_BYTES;
+        }
+        dst.order(order);
+        if (i < end) {
+            s = (s * Lcg.MULTIPLIER + Lcg.ADDEND) & Lcg.MASK;
+            int rnd = (int) (s >>> 16);
+            for (pendingCount = INT_BYTES; i < end; pendingCount--, rnd >>= Byte.SIZE) {
+                dst.put(i++, (byte) rnd);
+            }
+            pending = rnd;
+        }
+        state = s;
+        dst.position(end);
+    }
+}
@@ -0,0 +1,144 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Maps a region of a file of any (long) size as a sliding window of regions.
+ * Every call of nextWindow() unmaps the previous region, close() unmaps the last one,
+ * so resident memory is bounded by the window size and released as soon as the job ends.
+ * Data is forced to the device according to the {@link Durability} policy.
+ */
+public class MappedFileWriter implements AutoCloseable {
+    public static final long DEFAULT_WINDOW_SIZE = 256L * 1024 * 1024;
+    public static final long DEFAULT_FORCE_INTERVAL = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long end;
+    private final long windowSize;
+    private final Durability durability;
+    private final long forceInterval;
+    private long position;
+    private long windowStart;
+    private MappedByteBuffer window;
+    private int forcedPosition;
+    private Metrics metrics = Metrics.NOOP;
+
+    public MappedFileWriter(String fileName, long size) throws IOException {
+        this(fileName, 0, size, DEFAULT_WINDOW_SIZE, Durability.NONE, DEFAULT_FORCE_INTERVAL);
+    }
+
+    public MappedFileWriter(String fileName, long size, long windowSize) throws IOException {
+        this(fileName, 0, size, windowSize, Durability.NONE, DEFAULT_FORCE_INTERVAL);
+    }
+
+    /**
+     * Writer of the file region [start, start + size)
+     */
+    public MappedFileWriter(String fileName, long start, long size, long windowSize,
+                            Durability durability, long forceInterval) throws IOException {
+        if (windowSize <= 0 || windowSize > Integer.MAX_VALUE)
+            throw new IllegalArgumentException("Window size must be in (0, Integer.MAX_VALUE], but was " + windowSize);
+        if (durability == Durability.PERIODIC && forceInterval <= 0)
+            throw new IllegalArgumentException("Force interval must be positive, but was " + forceInterval);
+        this.channel = FileChannel.open(Path.of(fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.position = start;
+        this.end = start + size;
+        this.windowSize = windowSize;
+        this.durability = durability;
+        this.forceInterval = forceInterval;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public boolean hasNextWindow() {
+        return position < end;
+    }
+
+    /**
+     * Releases the current region and maps the next one
+     */
+    public MappedByteBuffer nextWindow() throws IOException {
+        releaseWindow();
+        long length = Math.min(windowSize, end - position);
+        long tMap = metrics.time();
+        JfrEvents.RegionMapped event = new JfrEvents.RegionMapped();
+        event.begin();
+        window = channel.map(FileChannel.MapMode.READ_WRITE, position, length);
+        event.end(position, length);
+        metrics.recordPhase(Phase.MAP, tMap, length);
+        windowStart = position;
+        forcedPosition = 0;
+        position += length;
+        return window;
+    }
+
+    /**
+     * File offset of the first byte of the current window
+     */
+    public long getWindowStart() {
+        return windowStart;
+    }
+
+    /**
+     * Reports, that bytes [0, windowPosition) of the current window are written.
+     * With PERIODIC durability forces them, when there are at least forceInterval not forced bytes.
+     */
+    public void markWritten(int windowPosition) {
+        if (durability == Durability.PERIODIC && windowPosition - forcedPosition >= forceInterval) {
+            long tForce = metrics.time();
+            window.force(forcedPosition, windowPosition - forcedPosition);
+            metrics.recordPhase(Phase.FORCE, tForce, windowPosition - forcedPosition);
+            forcedPosition = windowPosition;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            releaseWindow();
+            if (durability != Durability.NONE) {
+                long tForce = metrics.time();
+                channel.force(true);
+                metrics.recordPhase(Phase.FORCE, tForce, 0);
+            }
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void releaseWindow() {
+        if (window != null) {
+            if (durability == Durability.PERIODIC && forcedPosition < window.limit()) {
+                long tForce = metrics.time();
+                window.force(forcedPosition, window.limit() - forcedPosition);
+                metrics.recordPhase(Phase.FORCE, tForce, window.limit() - forcedPosition);
+            }
+            long tUnmap = metrics.time();
+            unmap(window);
+            metrics.recordPhase(Phase.UNMAP, tUnmap, window.limit());
+            window = null;
+        }
+    }
+
+    /**
+     * Unmaps the buffer right now instead of waiting for GC. The buffer must not be used afterwards.
+     */
+    static void unmap(MappedByteBuffer buffer) {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafeClass.getMethod("invokeCleaner", java.nio.ByteBuffer.class).invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException ex) {
+            System.out.println("Can't unmap buffer, it will be released by GC: " + ex.getMessage());
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.luxoft;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+import java.util.Arrays;
+
+/**
+ * Sink collecting the stream in a growing heap array, for tests and small in-process consumers
+ */
+public class MemorySink implements Sink, WritableByteChannel {
+    private byte[] bytes = new byte[1024];
+    private int size;
+    private boolean open = true;
+
+    @Override
+    public WritableByteChannel channel() {
+        return this;
+    }
+
+    @Override
+    public synchronized int write(ByteBuffer src) throws ClosedChannelException {
+        if (!open)
+            throw new ClosedChannelException();
+        int length = src.remaining();
+        if (size + length > bytes.length)
+            bytes = Arrays.copyOf(bytes, Math.max(size + length, 2 * bytes.length));
+        src.get(bytes, size, length);
+        size += length;
+        return length;
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() {
+        open = false;
+    }
+
+    public synchronized long size() {
+        return size;
+    }
+
+    public synchronized byte[] toByteArray() {
+        return Arrays.copyOf(bytes, size);
+    }
+
+    @Override
+    public String toString() {
+        return "Sink{memory, size=" + size() + "}";
+    }
+}
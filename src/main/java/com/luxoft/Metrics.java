@@ -0,0 +1,54 @@
+package com.luxoft;
+
+/**
+ * Instrumentation of Worker hot paths. Methods take start time from {@link #time()},
+ * so with {@link #NOOP} (the default) nothing is measured and calls are inlined to nothing.
+ */
+public interface Metrics {
+    Metrics NOOP = new Metrics() {
+    };
+
+    default boolean isEnabled() {
+        return false;
+    }
+
+    /**
+     * Start time in nanoseconds, 0 if metrics are disabled
+     */
+    default long time() {
+        return 0;
+    }
+
+    default void recordPhase(Phase phase, long startNanos, long bytes) {
+    }
+
+    /**
+     * Latency of one generated or written batch
+     */
+    default void recordBatch(long startNanos) {
+    }
+
+    /**
+     * Current thread was doing useful work since startNanos
+     */
+    default void recordBusy(long startNanos) {
+    }
+
+    /**
+     * Current thread was waiting (for a queue, a slot, a lock) since startNanos
+     */
+    default void recordIdle(long startNanos) {
+    }
+
+    default void recordQueueDepth(long depth) {
+    }
+
+    /**
+     * A producer or consumer of a queue had to wait
+     */
+    default void recordStall() {
+    }
+
+    default void recordJob(String name, long nanos, long bytes) {
+    }
+}
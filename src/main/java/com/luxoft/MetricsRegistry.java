@@ -0,0 +1,161 @@
+package com.luxoft;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Enabled {@link Metrics}: phase timers, batch latency histogram, throughput, per-thread busy/idle time,
+ * queue depth and stalls. All counters are lock-free, {@link #snapshot()} is exported by
+ * {@link JsonExporter} and {@link JmxExporter}.
+ */
+public class MetricsRegistry implements Metrics {
+    private final Map<Phase, Counter> phases = new EnumMap<>(Phase.class);
+    private final Map<String, Counter> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ThreadTime> threads = new ConcurrentHashMap<>();
+    private final LatencyHistogram batchLatency = new LatencyHistogram();
+    private final LongAdder stalls = new LongAdder();
+    private final LongAdder depthSamples = new LongAdder();
+    private final LongAdder depthSum = new LongAdder();
+    private final LongAccumulator maxDepth = new LongAccumulator(Math::max, 0);
+
+    public MetricsRegistry() {
+        for (Phase phase : Phase.values())
+            phases.put(phase, new Counter());
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public long time() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public void recordPhase(Phase phase, long startNanos, long bytes) {
+        phases.get(phase).add(System.nanoTime() - startNanos, bytes);
+    }
+
+    @Override
+    public void recordBatch(long startNanos) {
+        batchLatency.record(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void recordBusy(long startNanos) {
+        currentThreadTime().busy.add(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void recordIdle(long startNanos) {
+        currentThreadTime().idle.add(System.nanoTime() - startNanos);
+    }
+
+    @Override
+    public void recordQueueDepth(long depth) {
+        depthSamples.increment();
+        depthSum.add(depth);
+        maxDepth.accumulate(depth);
+    }
+
+    @Override
+    public void recordStall() {
+        stalls.increment();
+    }
+
+    @Override
+    public void recordJob(String name, long nanos, long bytes) {
+        jobs.computeIfAbsent(name, key -> new Counter()).add(nanos, bytes);
+    }
+
+    public long getPhaseNanos(Phase phase) {
+        return phases.get(phase).nanos.sum();
+    }
+
+    public long getPhaseBytes(Phase phase) {
+        return phases.get(phase).bytes.sum();
+    }
+
+    public long getStalls() {
+        return stalls.sum();
+    }
+
+    public LatencyHistogram getBatchLatency() {
+        return batchLatency;
+    }
+
+    /**
+     * All metrics as nested maps of numbers, ready to be exported
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> result = new LinkedHashMap<>();
+        Map<String, Object> phaseMap = new LinkedHashMap<>();
+        phases.forEach((phase, counter) -> phaseMap.put(phase.name(), counter.snapshot()));
+        result.put("phases", phaseMap);
+
+        Map<String, Object> jobMap = new TreeMap<>();
+        jobs.forEach((name, counter) -> jobMap.put(name, counter.snapshot()));
+        result.put("jobs", jobMap);
+
+        result.put("batchLatency", batchLatency.snapshot());
+
+        Map<String, Object> threadMap = new TreeMap<>();
+        threads.forEach((name, time) -> {
+            Map<String, Object> times = new LinkedHashMap<>();
+            long busy = time.busy.sum();
+            long idle = time.idle.sum();
+            times.put("busyNanos", busy);
+            times.put("idleNanos", idle);
+            times.put("utilization", busy + idle == 0 ? 0.0 : (double) busy / (busy + idle));
+            threadMap.put(name, times);
+        });
+        result.put("threads", threadMap);
+
+        Map<String, Object> queue = new LinkedHashMap<>();
+        long samples = depthSamples.sum();
+        queue.put("stalls", stalls.sum());
+        queue.put("maxDepth", maxDepth.get());
+        queue.put("meanDepth", samples == 0 ? 0.0 : (double) depthSum.sum() / samples);
+        result.put("queue", queue);
+        return result;
+    }
+
+    private ThreadTime currentThreadTime() {
+        return threads.computeIfAbsent(Thread.currentThread().getName(), name -> new ThreadTime());
+    }
+
+    private static class Counter {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+
+        void add(long time, long size) {
+            count.increment();
+            nanos.add(time);
+            bytes.add(size);
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> result = new LinkedHashMap<>();
+            long totalNanos = nanos.sum();
+            long totalBytes = bytes.sum();
+            result.put("count", count.sum());
+            result.put("nanos", totalNanos);
+            result.put("bytes", totalBytes);
+            result.put("bytesPerSecond", totalNanos == 0 ? 0.0 : totalBytes * 1e9 / totalNanos);
+            return result;
+        }
+    }
+
+    private static class ThreadTime {
+        private final LongAdder busy = new LongAdder();
+        private final LongAdder idle = new LongAdder();
+    }
+}
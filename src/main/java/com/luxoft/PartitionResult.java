@@ -0,0 +1,58 @@
+package com.luxoft;
+
+/**
+ * Outcome of one worker process of {@link ProcessCoordinator}: the range it wrote, its CRC32C and timing
+ */
+public class PartitionResult {
+    private final long start;
+    private final long size;
+    private final long checksum;
+    private final long nanos;
+
+    public PartitionResult(long start, long size, long checksum, long nanos) {
+        this.start = start;
+        this.size = size;
+        this.checksum = checksum;
+        this.nanos = nanos;
+    }
+
+    public long getStart() {
+        return start;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * CRC32C of bytes [start, start + size) of the file
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+
+    /**
+     * Time of generating and writing inside the worker process, without JVM startup
+     */
+    public long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * Line, which the worker process prints for the coordinator
+     */
+    String toLine() {
+        return String.format("%s %d %d %08x %d", PartitionWorker.RESULT_PREFIX, start, size, checksum, nanos);
+    }
+
+    static PartitionResult parse(String line) {
+        String[] fields = line.split(" ");
+        return new PartitionResult(Long.parseLong(fields[1]), Long.parseLong(fields[2]),
+                Long.parseLong(fields[3], 16), Long.parseLong(fields[4]));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Partition [%d, %d): crc32c = %08x, time = %d ms", start, start + size, checksum, nanos / 1_000_000);
+    }
+}
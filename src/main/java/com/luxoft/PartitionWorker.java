@@ -0,0 +1,51 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32C;
+
+/**
+ * Entry point of a worker process started by {@link ProcessCoordinator}.
+ * Writes bytes [start, start + size) of the sequence into the same region of the pre-sized shared file
+ * with positional writes and prints a {@link PartitionResult} line to stdout.
+ * Arguments: fileName seed start size force [algorithm], the algorithm is a {@link GeneratorBackend} name.
+ */
+public class PartitionWorker {
+    static final String RESULT_PREFIX = "PARTITION";
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 5 && args.length != 6) {
+            System.err.println("Usage: PartitionWorker fileName seed start size force [algorithm]");
+            System.exit(2);
+        }
+        String algorithm = args.length == 6 ? args[5] : GeneratorBackend.LCG;
+        PartitionResult result = write(Path.of(args[0]), GeneratorBackend.of(algorithm, Long.parseLong(args[1])),
+                Long.parseLong(args[2]), Long.parseLong(args[3]), Boolean.parseBoolean(args[4]));
+        System.out.println(result.toLine());
+    }
+
+    static PartitionResult write(Path path, GeneratorBackend backend, long start, long size, boolean force) throws IOException {
+        long tStart = System.nanoTime();
+        ByteGenerator generator = backend.atByte(start);
+        CRC32C checksum = new CRC32C();
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(BUFFER_SIZE, Math.max(size, 1)));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            for (long position = start, end = start + size; position < end; ) {
+                buffer.clear().limit((int) Math.min(buffer.capacity(), end - position));
+                generator.nextBytes(buffer);
+                buffer.flip();
+                checksum.update(buffer);
+                buffer.flip();
+                while (buffer.hasRemaining())
+                    position += channel.write(buffer, position);
+            }
+            if (force)
+                channel.force(false);
+        }
+        return new PartitionResult(start, size, checksum.getValue(), System.nanoTime() - tStart);
+    }
+}
@@ -0,0 +1,14 @@
+package com.luxoft;
+
+/**
+ * Phases of generating and writing, timed separately by {@link Metrics}
+ */
+public enum Phase {
+    ALLOCATE,
+    GENERATE,
+    MAP,
+    COPY,
+    WRITE,
+    FORCE,
+    UNMAP
+}
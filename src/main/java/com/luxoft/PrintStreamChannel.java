@@ -0,0 +1,58 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Channel over a PrintStream (System.out of the moment it is created), so a redirected System.out gets the stream.
+ * Heap buffers are written from their array, direct ones through a small copy buffer, every write is flushed
+ * and stream errors, which PrintStream only remembers, are thrown as IOException.
+ * Closing the channel does not close the stream.
+ */
+class PrintStreamChannel implements WritableByteChannel {
+    private static final int COPY_SIZE = 64 * 1024;
+
+    private final PrintStream out;
+    private byte[] copy;
+    private boolean open = true;
+
+    PrintStreamChannel(PrintStream out) {
+        this.out = out;
+    }
+
+    @Override
+    public synchronized int write(ByteBuffer src) throws IOException {
+        if (!open)
+            throw new ClosedChannelException();
+        int length = src.remaining();
+        if (src.hasArray()) {
+            out.write(src.array(), src.arrayOffset() + src.position(), length);
+            src.position(src.limit());
+        } else {
+            if (copy == null)
+                copy = new byte[COPY_SIZE];
+            while (src.hasRemaining()) {
+                int count = Math.min(copy.length, src.remaining());
+                src.get(copy, 0, count);
+                out.write(copy, 0, count);
+            }
+        }
+        if (out.checkError()) // flushes, PrintStream itself never throws
+            throw new IOException("Error writing to the print stream, e.g. the consumer closed the pipe");
+        return length;
+    }
+
+    @Override
+    public synchronized boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public synchronized void close() {
+        open = false;
+        out.flush();
+    }
+}
@@ -0,0 +1,118 @@
+package com.luxoft;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits the file into byte ranges and generates them in separate JVMs ({@link PartitionWorker}),
+ * so a job is not limited by the heap and GC of one process. The file is pre-sized by the coordinator,
+ * every worker seeks its own generator state and writes only its range of the shared file.
+ * Workers are started locally with ProcessBuilder, using the java executable and classpath of this JVM.
+ */
+public class ProcessCoordinator {
+    private final long seed;
+    private final long size;
+    private final int processes;
+    private final List<String> jvmOptions = new ArrayList<>();
+    private boolean force;
+    private String algorithm = GeneratorBackend.LCG;
+
+    public ProcessCoordinator(long seed, long size, int processes) {
+        if (processes <= 0)
+            throw new IllegalArgumentException("Number of processes must be positive, but was " + processes);
+        this.seed = seed;
+        this.size = size;
+        this.processes = processes;
+    }
+
+    /**
+     * Options of worker JVMs, e.g. -Xmx256m
+     */
+    public void setJvmOptions(List<String> jvmOptions) {
+        this.jvmOptions.clear();
+        this.jvmOptions.addAll(jvmOptions);
+    }
+
+    /**
+     * Whether every worker forces its range to the device before reporting completion
+     */
+    public void setForce(boolean force) {
+        this.force = force;
+    }
+
+    /**
+     * {@link GeneratorBackend} algorithm of the sequence, Random by default.
+     * Every worker seeks the start of its range, so the algorithm must have random access.
+     */
+    public void setAlgorithm(String algorithm) {
+        if (!GeneratorBackend.of(algorithm, seed).isRandomAccess())
+            throw new IllegalArgumentException("Partitions need random access, " + algorithm + " can only be generated in order");
+        this.algorithm = algorithm;
+    }
+
+    /**
+     * Writes the whole sequence into the file and returns results of all ranges in file order.
+     * Throws IOException if any worker fails.
+     */
+    public List<PartitionResult> run(Path path) throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(path.toFile(), "rw")) {
+            raf.setLength(size);
+        }
+        long rangeSize = (size + processes - 1) / processes;
+        List<Process> started = new ArrayList<>();
+        try {
+            for (long start = 0; start < size; start += rangeSize)
+                started.add(start(path, start, Math.min(rangeSize, size - start)));
+            List<PartitionResult> results = new ArrayList<>();
+            for (Process process : started)
+                results.add(await(process));
+            return results;
+        } finally {
+            started.forEach(Process::destroy);
+        }
+    }
+
+    private Process start(Path path, long start, long rangeSize) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(jvmOptions);
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(PartitionWorker.class.getName());
+        command.add(path.toAbsolutePath().toString());
+        command.add(Long.toString(seed));
+        command.add(Long.toString(start));
+        command.add(Long.toString(rangeSize));
+        command.add(Boolean.toString(force));
+        command.add(algorithm);
+        return new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+    }
+
+    private PartitionResult await(Process process) throws IOException {
+        PartitionResult result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (line.startsWith(PartitionWorker.RESULT_PREFIX + " "))
+                    result = PartitionResult.parse(line);
+            }
+        }
+        int exitCode;
+        try {
+            exitCode = process.waitFor();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for worker process " + process.pid(), e);
+        }
+        if (exitCode != 0 || result == null)
+            throw new IOException("Worker process " + process.pid() + " failed with exit code " + exitCode);
+        return result;
+    }
+}
@@ -0,0 +1,143 @@
+package com.luxoft;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Statistics of a byte sequence, calculated by {@link RandomnessAnalyzer}
+ */
+public class QualityReport {
+    /**
+     * |z| of the chi-square statistic above this value means the distribution is not uniform (p < 1e-4)
+     */
+    public static final double MAX_CHI_SQUARE_Z = 3.89;
+
+    private final long[] histogram;
+    private final long count;
+    private final double chiSquare;
+    private final double entropy;
+    private final double mean;
+    private final double serialCorrelation;
+    private final long runs;
+    private final long longestRun;
+
+    QualityReport(long[] histogram, double sumProducts, long runs, long longestRun) {
+        this.histogram = histogram;
+        long n = 0;
+        double sum = 0;
+        double sumSquares = 0;
+        for (int value = 0; value < histogram.length; value++) {
+            n += histogram[value];
+            sum += (double) value * histogram[value];
+            sumSquares += (double) value * value * histogram[value];
+        }
+        this.count = n;
+
+        double expected = n / 256.0;
+        double chi = 0;
+        double ent = 0;
+        for (long observed : histogram) {
+            chi += (observed - expected) * (observed - expected) / expected;
+            if (observed > 0) {
+                double p = (double) observed / n;
+                ent -= p * Math.log(p) / Math.log(2);
+            }
+        }
+        this.chiSquare = chi;
+        this.entropy = ent;
+        this.mean = sum / n;
+        double denominator = n * sumSquares - sum * sum;
+        this.serialCorrelation = denominator == 0 ? 1 : (n * sumProducts - sum * sum) / denominator;
+        this.runs = runs;
+        this.longestRun = longestRun;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Occurrences of every unsigned byte value 0..255
+     */
+    public long[] getHistogram() {
+        return histogram.clone();
+    }
+
+    /**
+     * Chi-square statistic of the byte distribution, 255 degrees of freedom
+     */
+    public double getChiSquare() {
+        return chiSquare;
+    }
+
+    /**
+     * Chi-square statistic converted to a standard normal value (Wilson-Hilferty approximation)
+     */
+    public double getChiSquareZ() {
+        double k = 255;
+        return (Math.cbrt(chiSquare / k) - (1 - 2 / (9 * k))) / Math.sqrt(2 / (9 * k));
+    }
+
+    /**
+     * Shannon entropy in bits per byte, 8 is the maximum
+     */
+    public double getEntropy() {
+        return entropy;
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    /**
+     * Correlation of every byte with the next one, close to 0 for random data
+     */
+    public double getSerialCorrelation() {
+        return serialCorrelation;
+    }
+
+    /**
+     * Number of runs of equal consecutive bytes
+     */
+    public long getRuns() {
+        return runs;
+    }
+
+    /**
+     * Expected number of runs for uniformly distributed bytes
+     */
+    public double getExpectedRuns() {
+        return count == 0 ? 0 : 1 + (count - 1) * 255.0 / 256;
+    }
+
+    public long getLongestRun() {
+        return longestRun;
+    }
+
+    /**
+     * Unsigned byte values, which never appeared
+     */
+    public List<Integer> getMissingValues() {
+        List<Integer> missing = new ArrayList<>();
+        for (int value = 0; value < histogram.length; value++) {
+            if (histogram[value] == 0)
+                missing.add(value);
+        }
+        return missing;
+    }
+
+    /**
+     * Quality gate: every byte value is present and the distribution passes the chi-square test
+     */
+    public boolean isAcceptable() {
+        return getMissingValues().isEmpty() && Math.abs(getChiSquareZ()) <= MAX_CHI_SQUARE_Z;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("bytes = %d, chi-square = %.2f (z = %.2f), entropy = %.6f bits/byte, mean = %.4f, "
+                        + "serial correlation = %.6f, runs = %d (expected %.0f), longest run = %d, missing values = %d",
+                count, chiSquare, getChiSquareZ(), entropy, mean, serialCorrelation, runs, getExpectedRuns(),
+                longestRun, getMissingValues().size());
+    }
+}
@@ -0,0 +1,238 @@
+package com.luxoft;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGenerator.JumpableGenerator;
+import java.util.random.RandomGenerator.LeapableGenerator;
+import java.util.random.RandomGenerator.SplittableGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+/**
+ * Backend on an algorithm of the Java 17 RandomGeneratorFactory, e.g. L64X128MixRandom, Xoshiro256PlusPlus
+ * or SplittableRandom. The sequence is a concatenation of blocks of BLOCK_SIZE bytes, every block is nextLong()
+ * values (little-endian) of its own generator derived from factory.create(seed), so blocks are independent streams:
+ * <ul>
+ * <li>leapable (jumpable) algorithms: block k is the root leaped k / BLOCKS_PER_LEAP times and then jumped
+ * k % BLOCKS_PER_LEAP times. Leaped roots are cached, so reaching any block costs at most BLOCKS_PER_LEAP jumps.</li>
+ * <li>splittable algorithms: block k is a node of the tree of split() generators. Base-256 digits of k
+ * (SPLIT_LEVELS of them, most significant first) say how many children of a node are skipped on the path,
+ * so reaching any block costs at most 255 splits per level.</li>
+ * </ul>
+ * The next block is always one jump or split away from the current one, so sequential generation is not slowed down.
+ */
+public final class RandomGeneratorBackend implements GeneratorBackend {
+    public static final int BLOCK_SIZE = 64 * 1024;
+    private static final int BLOCKS_PER_LEAP = 64;
+    private static final int SPLIT_BITS = 8;
+    private static final int SPLIT_LEVELS = 4;
+    private static final int SPLITS_PER_NODE = 1 << SPLIT_BITS;
+    private static final long MAX_SPLIT_BLOCKS = 1L << (SPLIT_BITS * SPLIT_LEVELS);
+    private static final VarHandle LONG_LE = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final String algorithm;
+    private final long seed;
+    private final RandomGeneratorFactory<RandomGenerator> factory;
+    private final boolean leapable;
+    private final ConcurrentSkipListMap<Long, LeapableGenerator> leapedRoots = new ConcurrentSkipListMap<>();
+
+    /**
+     * @throws IllegalArgumentException if the algorithm is unknown or neither leapable nor splittable
+     */
+    public RandomGeneratorBackend(String algorithm, long seed) {
+        this.factory = RandomGeneratorFactory.of(algorithm);
+        this.leapable = factory.isLeapable();
+        if (!leapable && !factory.isSplittable())
+            throw new IllegalArgumentException("Algorithm " + algorithm + " is neither leapable nor splittable");
+        this.algorithm = algorithm;
+        this.seed = seed;
+        if (leapable)
+            leapedRoots.put(0L, (LeapableGenerator) factory.create(seed));
+    }
+
+    @Override
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    @Override
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Whether blocks are derived by jump() and leap(), otherwise by split()
+     */
+    public boolean isLeapable() {
+        return leapable;
+    }
+
+    @Override
+    public ByteGenerator atByte(long byteOffset) {
+        BlockGenerator generator = new BlockGenerator(new Cursor(byteOffset / BLOCK_SIZE));
+        generator.skip((int) (byteOffset % BLOCK_SIZE));
+        return generator;
+    }
+
+    @Override
+    public RandomGenerator newRandomGenerator() {
+        return factory.create(seed);
+    }
+
+    @Override
+    public String toString() {
+        return algorithm + "(" + seed + ")";
+    }
+
+    /**
+     * Copy of the root leaped the given number of times, computed from the nearest cached one
+     */
+    private LeapableGenerator leapedRoot(long leaps) {
+        Map.Entry<Long, LeapableGenerator> nearest = leapedRoots.floorEntry(leaps);
+        LeapableGenerator generator = nearest.getValue().copy();
+        for (long i = nearest.getKey(); i < leaps; i++)
+            generator.leap();
+        if (nearest.getKey() < leaps)
+            leapedRoots.putIfAbsent(leaps, generator.copy());
+        return generator;
+    }
+
+    /**
+     * Derives generators of consecutive blocks
+     */
+    private final class Cursor {
+        private long block;
+        // leapable: initial state of the block; splittable: parent node, whose next split() is the block
+        private RandomGenerator node;
+
+        Cursor(long block) {
+            this.block = block;
+        }
+
+        RandomGenerator next() {
+            if (node == null)
+                seek();
+            RandomGenerator generator = leapable
+                    ? ((JumpableGenerator) node).copyAndJump()
+                    : ((SplittableGenerator) node).split();
+            block++;
+            if (block % (leapable ? BLOCKS_PER_LEAP : SPLITS_PER_NODE) == 0)
+                node = null; // the next block starts a new leap or parent node
+            return generator;
+        }
+
+        private void seek() {
+            if (leapable) {
+                JumpableGenerator generator = leapedRoot(block / BLOCKS_PER_LEAP);
+                for (long i = block % BLOCKS_PER_LEAP; i > 0; i--)
+                    generator.jump();
+                node = generator;
+                return;
+            }
+            if (block >= MAX_SPLIT_BLOCKS)
+                throw new IllegalArgumentException("Offset is beyond " + MAX_SPLIT_BLOCKS * BLOCK_SIZE + " bytes of " + algorithm);
+            SplittableGenerator generator = (SplittableGenerator) factory.create(seed);
+            for (int level = SPLIT_LEVELS - 1; level >= 0; level--) {
+                int digit = (int) (block >>> (level * SPLIT_BITS)) & (SPLITS_PER_NODE - 1);
+                for (int i = 0; i < digit; i++)
+                    generator.split();
+                if (level > 0)
+                    generator = generator.split();
+            }
+            node = generator;
+        }
+    }
+
+    /**
+     * Byte stream over consecutive blocks, bytes left from the last long are kept for the next call
+     */
+    private static final class BlockGenerator implements ByteGenerator {
+        private final Cursor cursor;
+        private RandomGenerator generator;
+        private int remaining;
+        private long pending;
+        private int pendingCount;
+
+        BlockGenerator(Cursor cursor) {
+            this.cursor = cursor;
+            nextBlock();
+        }
+
+        void skip(int bytes) {
+            for (int i = bytes / Long.BYTES; i > 0; i--)
+                generator.nextLong();
+            remaining -= bytes / Long.BYTES * Long.BYTES;
+            int skipBytes = bytes % Long.BYTES;
+            if (skipBytes > 0) {
+                pending = generator.nextLong() >>> (skipBytes * Byte.SIZE);
+                pendingCount = Long.BYTES - skipBytes;
+                remaining -= Long.BYTES;
+            }
+        }
+
+        @Override
+        public void nextBytes(byte[] bytes, int offset, int length) {
+            int i = offset;
+            int end = offset + length;
+            for (; pendingCount > 0 && i < end; pendingCount--, pending >>>= Byte.SIZE)
+                bytes[i++] = (byte) pending;
+
+            while (i < end) {
+                if (remaining == 0)
+                    nextBlock();
+                int longs = Math.min(end - i, remaining) / Long.BYTES;
+                if (longs == 0) {
+                    long rnd = generator.nextLong();
+                    remaining -= Long.BYTES;
+                    for (pendingCount = Long.BYTES; i < end; pendingCount--, rnd >>>= Byte.SIZE)
+                        bytes[i++] = (byte) rnd;
+                    pending = rnd;
+                    break;
+                }
+                RandomGenerator g = generator;
+                for (int limit = i + longs * Long.BYTES; i < limit; i += Long.BYTES)
+                    LONG_LE.set(bytes, i, g.nextLong());
+                remaining -= longs * Long.BYTES;
+            }
+        }
+
+        @Override
+        public void nextBytes(ByteBuffer dst) {
+            int i = dst.position();
+            int end = dst.limit();
+            for (; pendingCount > 0 && i < end; pendingCount--, pending >>>= Byte.SIZE)
+                dst.put(i++, (byte) pending);
+
+            ByteOrder order = dst.order();
+            dst.order(ByteOrder.LITTLE_ENDIAN);
+            while (i < end) {
+                if (remaining == 0)
+                    nextBlock();
+                int longs = Math.min(end - i, remaining) / Long.BYTES;
+                if (longs == 0) {
+                    long rnd = generator.nextLong();
+                    remaining -= Long.BYTES;
+                    for (pendingCount = Long.BYTES; i < end; pendingCount--, rnd >>>= Byte.SIZE)
+                        dst.put(i++, (byte) rnd);
+                    pending = rnd;
+                    break;
+                }
+                RandomGenerator g = generator;
+                for (int limit = i + longs * Long.BYTES; i < limit; i += Long.BYTES)
+                    dst.putLong(i, g.nextLong());
+                remaining -= longs * Long.BYTES;
+            }
+            dst.order(order);
+            dst.position(end);
+        }
+
+        private void nextBlock() {
+            generator = cursor.next();
+            remaining = BLOCK_SIZE;
+        }
+    }
+}
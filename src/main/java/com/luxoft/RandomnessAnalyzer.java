@@ -0,0 +1,207 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Streaming statistical analyzer of a byte sequence.
+ * Chunks can be passed from many threads in any order: every chunk is counted into a local histogram,
+ * which is merged into one of the striped long[256] histograms, and a small summary of the chunk borders
+ * is joined with the summaries of the adjacent ranges (serial correlation and runs across chunks) right away.
+ * Only one summary per contiguous range seen so far is kept, i.e. the frontier plus chunks, which came out of order,
+ * so the state stays proportional to the chunks in flight, not to the length of the sequence.
+ */
+public class RandomnessAnalyzer {
+    public static final int DEFAULT_CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int STRIPES = 2 * Runtime.getRuntime().availableProcessors();
+
+    private final long[][] stripes = new long[STRIPES][256];
+    private final TreeMap<Long, ChunkSummary> ranges = new TreeMap<>();
+
+    /**
+     * Analyzes bytes [position, limit) of the chunk, which starts at the given offset of the sequence.
+     * Position of the buffer is not changed.
+     */
+    public void accept(long offset, ByteBuffer chunk) {
+        int start = chunk.position();
+        int end = chunk.limit();
+        if (start == end)
+            return;
+        long[] histogram = new long[256];
+        int previous = chunk.get(start) & 0xFF;
+        histogram[previous]++;
+        ChunkSummary summary = new ChunkSummary(end - start, previous);
+        long run = 1;
+        for (int i = start + 1; i < end; i++) {
+            int value = chunk.get(i) & 0xFF;
+            histogram[value]++;
+            summary.sumProducts += previous * value;
+            if (value == previous) {
+                run++;
+            } else {
+                summary.closeRun(run);
+                run = 1;
+            }
+            previous = value;
+        }
+        summary.closeRun(run);
+        summary.last = previous;
+        summary.lastRun = run;
+
+        long[] stripe = stripes[(int) (Thread.currentThread().getId() % STRIPES)];
+        synchronized (stripe) {
+            for (int value = 0; value < histogram.length; value++)
+                stripe[value] += histogram[value];
+        }
+        join(offset, summary);
+    }
+
+    /**
+     * Merges the chunk with the ranges ending at its start and starting at its end
+     */
+    private synchronized void join(long offset, ChunkSummary summary) {
+        Map.Entry<Long, ChunkSummary> before = ranges.lowerEntry(offset);
+        if (before != null && before.getKey() + before.getValue().length == offset) {
+            ranges.remove(before.getKey());
+            offset = before.getKey();
+            summary = before.getValue().followedBy(summary, true);
+        }
+        ChunkSummary after = ranges.remove(offset + summary.length);
+        if (after != null)
+            summary = summary.followedBy(after, true);
+        ranges.put(offset, summary);
+    }
+
+    /**
+     * Number of contiguous ranges kept: 1 if all chunks so far are one range, more while chunks are in flight
+     */
+    public synchronized int getRangeCount() {
+        return ranges.size();
+    }
+
+    public void accept(long offset, byte[] bytes, int from, int length) {
+        accept(offset, ByteBuffer.wrap(bytes, from, length));
+    }
+
+    /**
+     * Report of all chunks accepted so far
+     */
+    public QualityReport report() {
+        long[] histogram = new long[256];
+        for (long[] stripe : stripes) {
+            synchronized (stripe) {
+                for (int value = 0; value < histogram.length; value++)
+                    histogram[value] += stripe[value];
+            }
+        }
+
+        ChunkSummary total = null;
+        synchronized (this) {
+            long previousEnd = -1;
+            for (Map.Entry<Long, ChunkSummary> entry : ranges.entrySet()) { // gaps are not joined
+                ChunkSummary range = entry.getValue();
+                total = total == null ? range : total.followedBy(range, entry.getKey() == previousEnd);
+                previousEnd = entry.getKey() + range.length;
+            }
+        }
+        if (total == null)
+            return new QualityReport(histogram, 0, 0, 0);
+        return new QualityReport(histogram, total.sumProducts, total.runs, total.longestRun);
+    }
+
+    public static QualityReport analyze(byte[] bytes, ExecutorService executor) {
+        RandomnessAnalyzer analyzer = new RandomnessAnalyzer();
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += DEFAULT_CHUNK_SIZE) {
+            int chunkStart = start;
+            int length = Math.min(DEFAULT_CHUNK_SIZE, bytes.length - start);
+            futures.add(CompletableFuture.runAsync(() -> analyzer.accept(chunkStart, bytes, chunkStart, length), executor));
+        }
+        futures.forEach(CompletableFuture::join);
+        return analyzer.report();
+    }
+
+    /**
+     * Analyzes the file chunk by chunk in parallel, without loading it into heap
+     */
+    public static QualityReport analyze(Path path, ExecutorService executor) throws IOException {
+        RandomnessAnalyzer analyzer = new RandomnessAnalyzer();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (long start = 0; start < size; start += DEFAULT_CHUNK_SIZE) {
+                long chunkStart = start;
+                long length = Math.min(DEFAULT_CHUNK_SIZE, size - start);
+                futures.add(CompletableFuture.runAsync(() -> {
+                    MappedByteBuffer chunk = null;
+                    try {
+                        chunk = channel.map(FileChannel.MapMode.READ_ONLY, chunkStart, length);
+                        analyzer.accept(chunkStart, chunk);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    } finally {
+                        if (chunk != null)
+                            MappedFileWriter.unmap(chunk);
+                    }
+                }, executor));
+            }
+            try {
+                futures.forEach(CompletableFuture::join);
+            } catch (RuntimeException ex) {
+                if (ex.getCause() instanceof UncheckedIOException)
+                    throw ((UncheckedIOException) ex.getCause()).getCause();
+                throw ex;
+            }
+        }
+        return analyzer.report();
+    }
+
+    private static class ChunkSummary {
+        private final long length;
+        private final int first;
+        private int last;
+        private long sumProducts;
+        private long runs;
+        private long firstRun = -1;
+        private long lastRun;
+        private long longestRun;
+
+        ChunkSummary(long length, int first) {
+            this.length = length;
+            this.first = first;
+        }
+
+        void closeRun(long run) {
+            if (firstRun < 0)
+                firstRun = run;
+            longestRun = Math.max(longestRun, run);
+            runs++;
+        }
+
+        /**
+         * Summary of this range followed by the next one, which starts right at its end if adjacent
+         */
+        ChunkSummary followedBy(ChunkSummary next, boolean adjacent) {
+            boolean joined = adjacent && last == next.first;
+            ChunkSummary result = new ChunkSummary(length + next.length, first);
+            result.last = next.last;
+            result.sumProducts = sumProducts + next.sumProducts + (adjacent ? (long) last * next.first : 0);
+            result.runs = runs + next.runs - (joined ? 1 : 0);
+            result.firstRun = joined && firstRun == length ? length + next.firstRun : firstRun;
+            result.lastRun = joined && next.lastRun == next.length ? lastRun + next.length : next.lastRun;
+            result.longestRun = Math.max(Math.max(longestRun, next.longestRun), joined ? lastRun + next.firstRun : 0);
+            return result;
+        }
+    }
+}
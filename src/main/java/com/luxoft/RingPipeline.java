@@ -0,0 +1,228 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.Checksum;
+
+/**
+ * N generator threads and M writer threads connected by a preallocated lock-free ring of reusable direct buffers.
+ * Chunk c always goes through slot c % slots. Slot state 2c means "free for chunk c", 2c + 1 means "chunk c is ready",
+ * so a generator waits (backpressure) until the writer of chunk c - slots released the slot.
+ * Every generator seeks its own generator ({@link GeneratorBackend#atByte}) to the chunk offset,
+ * so output is deterministic for any N and M. A generator thread, which gets the chunk right after its previous one,
+ * continues without seeking, so with one generator thread the backend is read strictly in order.
+ * The pipeline can produce any part [start, start + size) of the sequence, it is written from the channel position 0.
+ */
+public class RingPipeline {
+    private static final int SPINS_BEFORE_PARK = 100;
+    private static final long PARK_NANOS = 10_000;
+
+    private final GeneratorBackend backend;
+    private final long start;
+    private final long size;
+    private final int chunkSize;
+    private final long chunks;
+    private final ByteBuffer[] buffers;
+    private final AtomicLongArray slotStates;
+    private final AtomicLong nextToGenerate = new AtomicLong();
+    private final AtomicLong nextToWrite = new AtomicLong();
+    private final AtomicLong stalls = new AtomicLong();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private RandomnessAnalyzer analyzer;
+    private Checksum checksum;
+    private Metrics metrics = Metrics.NOOP;
+
+    public RingPipeline(long seed, long size, int chunkSize, int slots) {
+        this(seed, 0, size, chunkSize, slots);
+    }
+
+    public RingPipeline(long seed, long start, long size, int chunkSize, int slots) {
+        this(GeneratorBackend.lcg(seed), start, size, chunkSize, slots);
+    }
+
+    public RingPipeline(GeneratorBackend backend, long start, long size, int chunkSize, int slots) {
+        if (chunkSize <= 0 || slots <= 0)
+            throw new IllegalArgumentException("Chunk size and number of slots must be positive");
+        this.backend = backend;
+        this.start = start;
+        this.size = size;
+        this.chunkSize = chunkSize;
+        this.chunks = (size + chunkSize - 1) / chunkSize;
+        this.buffers = new ByteBuffer[slots];
+        this.slotStates = new AtomicLongArray(slots);
+        for (int slot = 0; slot < slots; slot++) {
+            buffers[slot] = ByteBuffer.allocateDirect(chunkSize);
+            slotStates.set(slot, 2L * slot);
+        }
+    }
+
+    /**
+     * Optional analyzer, which writers pass every chunk to before writing it
+     */
+    public void setAnalyzer(RandomnessAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+
+    /**
+     * Optional checksum of the written bytes. Chunks must reach it in order, so it needs exactly one writer.
+     */
+    public void setChecksum(Checksum checksum) {
+        this.checksum = checksum;
+    }
+
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Generates the whole sequence into the file channel with positional writes and waits for all threads
+     */
+    public void run(FileChannel channel, int generators, int writers) throws IOException {
+        run(channel, true, generators, writers);
+    }
+
+    /**
+     * Generates the whole sequence into a stream-like channel (pipe, socket) in order: one writer thread
+     * with plain channel.write(), a blocking channel slows generators down through the ring (backpressure)
+     */
+    public void run(WritableByteChannel channel, int generators) throws IOException {
+        run(channel, false, generators, 1);
+    }
+
+    private void run(WritableByteChannel channel, boolean positional, int generators, int writers) throws IOException {
+        if (checksum != null && writers != 1)
+            throw new IllegalArgumentException("Checksum needs exactly one writer, but was " + writers);
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < generators; i++)
+            threads.add(new Thread(this::generate, "ring-generator-" + i));
+        for (int i = 0; i < writers; i++)
+            threads.add(new Thread(() -> write(channel, positional), "ring-writer-" + i));
+        threads.forEach(Thread::start);
+        try {
+            for (Thread thread : threads)
+                thread.join();
+        } catch (InterruptedException e) {
+            failure.compareAndSet(null, e);
+            Thread.currentThread().interrupt();
+        }
+        Throwable throwable = failure.get();
+        if (throwable instanceof IOException)
+            throw (IOException) throwable;
+        if (throwable != null)
+            throw new RuntimeException(throwable);
+    }
+
+    /**
+     * How many times generators or writers had to wait for a slot
+     */
+    public long getStalls() {
+        return stalls.get();
+    }
+
+    private void generate() {
+        ByteGenerator generator = null;
+        long generatorPosition = -1;
+        try {
+            for (long chunk = nextToGenerate.getAndIncrement(); chunk < chunks; chunk = nextToGenerate.getAndIncrement()) {
+                int slot = (int) (chunk % buffers.length);
+                if (!awaitState(slot, 2 * chunk, "generator", start + chunk * chunkSize))
+                    return;
+                long tBatch = metrics.time();
+                JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+                event.begin();
+                ByteBuffer buffer = buffers[slot];
+                long position = chunk * chunkSize;
+                buffer.clear().limit((int) Math.min(chunkSize, size - position));
+                if (generatorPosition != start + position)
+                    generator = backend.atByte(start + position);
+                generator.nextBytes(buffer);
+                generatorPosition = start + position + buffer.limit();
+                slotStates.set(slot, 2 * chunk + 1);
+                event.end(start + position, buffer.limit());
+                metrics.recordPhase(Phase.GENERATE, tBatch, buffer.limit());
+                metrics.recordBatch(tBatch);
+                metrics.recordBusy(tBatch);
+                metrics.recordQueueDepth(nextToGenerate.get() - nextToWrite.get());
+            }
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+    }
+
+    private void write(WritableByteChannel channel, boolean positional) {
+        try {
+            for (long chunk = nextToWrite.getAndIncrement(); chunk < chunks; chunk = nextToWrite.getAndIncrement()) {
+                int slot = (int) (chunk % buffers.length);
+                if (!awaitState(slot, 2 * chunk + 1, "writer", start + chunk * chunkSize))
+                    return;
+                long tBatch = metrics.time();
+                JfrEvents.RegionWritten event = new JfrEvents.RegionWritten();
+                event.begin();
+                ByteBuffer buffer = buffers[slot];
+                buffer.flip();
+                int length = buffer.remaining();
+                long position = chunk * chunkSize;
+                if (analyzer != null)
+                    analyzer.accept(start + position, buffer);
+                if (checksum != null) {
+                    buffer.mark();
+                    checksum.update(buffer);
+                    buffer.reset();
+                }
+                if (positional) {
+                    FileChannel fileChannel = (FileChannel) channel;
+                    while (buffer.hasRemaining())
+                        position += fileChannel.write(buffer, position);
+                } else {
+                    while (buffer.hasRemaining())
+                        channel.write(buffer);
+                }
+                slotStates.set(slot, 2 * (chunk + buffers.length));
+                event.end(start + chunk * chunkSize, length);
+                metrics.recordPhase(Phase.WRITE, tBatch, length);
+                metrics.recordBusy(tBatch);
+            }
+        } catch (Throwable t) {
+            failure.compareAndSet(null, t);
+        }
+    }
+
+    /**
+     * Spins and then parks until the slot gets the expected state. Returns false if the pipeline failed.
+     */
+    private boolean awaitState(int slot, long expected, String stage, long offset) {
+        if (slotStates.get(slot) == expected)
+            return true;
+        stalls.incrementAndGet();
+        metrics.recordStall();
+        long tIdle = metrics.time();
+        JfrEvents.PipelineStall event = new JfrEvents.PipelineStall();
+        event.begin();
+        try {
+            return spin(slot, expected);
+        } finally {
+            event.end(stage, offset);
+            metrics.recordIdle(tIdle);
+        }
+    }
+
+    private boolean spin(int slot, long expected) {
+        for (int spins = 0; slotStates.get(slot) != expected; spins++) {
+            if (failure.get() != null)
+                return false;
+            if (spins < SPINS_BEFORE_PARK)
+                Thread.onSpinWait();
+            else
+                LockSupport.parkNanos(PARK_NANOS);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,151 @@
+package com.luxoft;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The first size bytes of a {@link GeneratorBackend} sequence as a random-access "virtual file":
+ * read(offset, dst) computes any range on demand by jumping ahead, so sparse readers need neither the file nor the disk.
+ * Generated blocks of blockSize bytes (64 KB - 1 MB is a good range) are kept in a cache of at most cacheBlocks blocks
+ * with CLOCK eviction. A hit is a ConcurrentHashMap lookup, which sets the reference bit of the block,
+ * a miss generates the block outside of any lock, only putting it into the clock ring is synchronized.
+ * Blocks are never modified after they are cached, so concurrent readers of an evicted block are safe.
+ * The backend must have random access ({@link GeneratorBackend#isRandomAccess()}).
+ */
+public class SeededByteSource {
+    public static final int DEFAULT_BLOCK_SIZE = 256 * 1024;
+    public static final int DEFAULT_CACHE_BLOCKS = 256;
+
+    private final GeneratorBackend backend;
+    private final long size;
+    private final int blockSize;
+    private final ConcurrentHashMap<Long, Block> cache;
+    private final Block[] ring;
+    private int hand;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private Metrics metrics = Metrics.NOOP;
+
+    public SeededByteSource(long seed, long size) {
+        this(GeneratorBackend.lcg(seed), size, DEFAULT_BLOCK_SIZE, DEFAULT_CACHE_BLOCKS);
+    }
+
+    public SeededByteSource(GeneratorBackend backend, long size, int blockSize, int cacheBlocks) {
+        if (blockSize <= 0 || cacheBlocks <= 0)
+            throw new IllegalArgumentException("Block size and number of cached blocks must be positive");
+        if (!backend.isRandomAccess())
+            throw new IllegalArgumentException("Every missed block seeks its offset, " + backend + " can only be generated in order");
+        this.backend = backend;
+        this.size = size;
+        this.blockSize = blockSize;
+        this.cache = new ConcurrentHashMap<>(2 * cacheBlocks);
+        this.ring = new Block[cacheBlocks];
+    }
+
+    /**
+     * Time of generating missed blocks is recorded as {@link Phase#GENERATE}
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? Metrics.NOOP : metrics;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Reads bytes from the offset into dst, like FileChannel.read(dst, position): as many as dst has room for,
+     * fewer at the end of the source. Returns the number of bytes read or -1 if the offset is at or after the end.
+     */
+    public int read(long offset, ByteBuffer dst) {
+        if (offset < 0)
+            throw new IllegalArgumentException("Negative offset " + offset);
+        if (offset >= size)
+            return -1;
+        int length = (int) Math.min(dst.remaining(), size - offset);
+        for (int done = 0; done < length; ) {
+            long position = offset + done;
+            long index = position / blockSize;
+            byte[] bytes = block(index).bytes;
+            int blockPosition = (int) (position - index * blockSize);
+            int count = Math.min(length - done, bytes.length - blockPosition);
+            dst.put(bytes, blockPosition, count);
+            done += count;
+        }
+        return length;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getCachedBlocks() {
+        return cache.size();
+    }
+
+    @Override
+    public String toString() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return String.format("SeededByteSource{backend=%s, size=%d, blockSize=%d, hits=%d, misses=%d, evictions=%d, hitRate=%.3f}",
+                backend, size, blockSize, hitCount, getMisses(), getEvictions(), total == 0 ? 0.0 : (double) hitCount / total);
+    }
+
+    private Block block(long index) {
+        Block block = cache.get(index);
+        if (block != null) {
+            block.referenced = true;
+            hits.increment();
+            return block;
+        }
+        misses.increment();
+        long tGenerate = metrics.time();
+        long start = index * blockSize;
+        byte[] bytes = new byte[(int) Math.min(blockSize, size - start)];
+        backend.atByte(start).nextBytes(bytes);
+        metrics.recordPhase(Phase.GENERATE, tGenerate, bytes.length);
+        return insert(new Block(index, bytes));
+    }
+
+    /**
+     * Puts the block at the clock hand: referenced blocks get a second chance, the first unreferenced one is evicted
+     */
+    private synchronized Block insert(Block block) {
+        Block existing = cache.get(block.index);
+        if (existing != null) // another thread generated it meanwhile
+            return existing;
+        while (ring[hand] != null && ring[hand].referenced) {
+            ring[hand].referenced = false;
+            hand = (hand + 1) % ring.length;
+        }
+        if (ring[hand] != null) {
+            cache.remove(ring[hand].index);
+            evictions.increment();
+        }
+        ring[hand] = block;
+        cache.put(block.index, block);
+        hand = (hand + 1) % ring.length;
+        return block;
+    }
+
+    private static class Block {
+        private final long index;
+        private final byte[] bytes;
+        private volatile boolean referenced;
+
+        Block(long index, byte[] bytes) {
+            this.index = index;
+            this.bytes = bytes;
+        }
+    }
+}
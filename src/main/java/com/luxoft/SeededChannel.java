@@ -0,0 +1,98 @@
+package com.luxoft;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.NonWritableChannelException;
+import java.nio.channels.SeekableByteChannel;
+
+/**
+ * The first size bytes of the sequence of a {@link GeneratorBackend} (Random(seed).nextBytes() by default)
+ * as a read-only channel. read() generates straight into the destination buffer (a direct buffer means
+ * no heap copy at all), position(long) jumps with GeneratorBackend.atByte(), in O(log n) for the LCG.
+ */
+public class SeededChannel implements SeekableByteChannel {
+    private final GeneratorBackend backend;
+    private final long size;
+    private long position;
+    private ByteGenerator generator;
+    private boolean open = true;
+
+    public SeededChannel(long seed, long size) {
+        this(GeneratorBackend.lcg(seed), 0, size);
+    }
+
+    /**
+     * Channel of the backend's sequence, positioned at start
+     */
+    public SeededChannel(GeneratorBackend backend, long start, long size) {
+        if (start < 0)
+            throw new IllegalArgumentException("Negative position " + start);
+        this.backend = backend;
+        this.size = size;
+        this.position = start;
+        this.generator = backend.atByte(Math.min(start, size));
+    }
+
+    @Override
+    public int read(ByteBuffer dst) throws ClosedChannelException {
+        ensureOpen();
+        if (position >= size)
+            return -1;
+        int length = (int) Math.min(dst.remaining(), size - position);
+        int limit = dst.limit();
+        dst.limit(dst.position() + length);
+        generator.nextBytes(dst);
+        dst.limit(limit);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public int write(ByteBuffer src) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public long position() throws ClosedChannelException {
+        ensureOpen();
+        return position;
+    }
+
+    @Override
+    public SeekableByteChannel position(long newPosition) throws ClosedChannelException {
+        ensureOpen();
+        if (newPosition < 0)
+            throw new IllegalArgumentException("Negative position " + newPosition);
+        if (newPosition != position) {
+            position = newPosition;
+            generator = backend.atByte(Math.min(newPosition, size));
+        }
+        return this;
+    }
+
+    @Override
+    public long size() throws ClosedChannelException {
+        ensureOpen();
+        return size;
+    }
+
+    @Override
+    public SeekableByteChannel truncate(long size) {
+        throw new NonWritableChannelException();
+    }
+
+    @Override
+    public boolean isOpen() {
+        return open;
+    }
+
+    @Override
+    public void close() {
+        open = false;
+    }
+
+    private void ensureOpen() throws ClosedChannelException {
+        if (!open)
+            throw new ClosedChannelException();
+    }
+}
@@ -0,0 +1,114 @@
+package com.luxoft;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * The first size bytes of the sequence of a {@link GeneratorBackend} (Random(seed).nextBytes() by default)
+ * as a lazy InputStream: bytes are generated on read, straight into the caller's array, so memory does not depend
+ * on the size. skip() jumps ahead with GeneratorBackend.atByte(), in O(log n) for the LCG.
+ * Not thread-safe, like other InputStreams.
+ */
+public class SeededInputStream extends InputStream {
+    private static final int TRANSFER_BUFFER_SIZE = 64 * 1024;
+
+    private final GeneratorBackend backend;
+    private final long size;
+    private final byte[] single = new byte[1];
+    private long position;
+    private ByteGenerator generator;
+
+    public SeededInputStream(long seed, long size) {
+        this(seed, 0, size);
+    }
+
+    /**
+     * Stream of bytes [start, size) of the sequence
+     */
+    public SeededInputStream(long seed, long start, long size) {
+        this(GeneratorBackend.lcg(seed), start, size);
+    }
+
+    /**
+     * Stream of bytes [start, size) of the backend's sequence
+     */
+    public SeededInputStream(GeneratorBackend backend, long start, long size) {
+        if (start < 0 || start > size)
+            throw new IllegalArgumentException("Start " + start + " must be in [0, " + size + "]");
+        this.backend = backend;
+        this.size = size;
+        this.position = start;
+        this.generator = backend.atByte(start);
+    }
+
+    /**
+     * Offset of the next byte in the sequence
+     */
+    public long getPosition() {
+        return position;
+    }
+
+    @Override
+    public int read() {
+        if (position >= size)
+            return -1;
+        generator.nextBytes(single, 0, 1);
+        position++;
+        return single[0] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) {
+        if (len == 0)
+            return 0;
+        if (position >= size)
+            return -1;
+        int length = (int) Math.min(len, size - position);
+        generator.nextBytes(b, off, length);
+        position += length;
+        return length;
+    }
+
+    @Override
+    public byte[] readNBytes(int len) {
+        if (len < 0)
+            throw new IllegalArgumentException("len < 0");
+        byte[] bytes = new byte[(int) Math.min(len, size - position)];
+        read(bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    @Override
+    public byte[] readAllBytes() {
+        if (size - position > Integer.MAX_VALUE - 8)
+            throw new OutOfMemoryError("Remaining " + (size - position) + " bytes do not fit into an array");
+        return readNBytes((int) (size - position));
+    }
+
+    @Override
+    public long skip(long n) {
+        long skipped = Math.max(0, Math.min(n, size - position));
+        if (skipped > 0) {
+            position += skipped;
+            generator = backend.atByte(position);
+        }
+        return skipped;
+    }
+
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, size - position);
+    }
+
+    @Override
+    public long transferTo(OutputStream out) throws IOException {
+        byte[] buffer = new byte[(int) Math.min(TRANSFER_BUFFER_SIZE, Math.max(1, size - position))];
+        long transferred = 0;
+        for (int read = read(buffer, 0, buffer.length); read > 0; read = read(buffer, 0, buffer.length)) {
+            out.write(buffer, 0, read);
+            transferred += read;
+        }
+        return transferred;
+    }
+}
@@ -0,0 +1,145 @@
+package com.luxoft;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Describes a logical file of the sequence split into shard files. Concatenation of the shards
+ * in manifest order equals the first size bytes of the sequence of the {@link GeneratorBackend} algorithm and seed
+ * (Random(seed).nextBytes() by default, manifests without the algorithm line are read as Random).
+ * Text format, one shard per line, so it is easy to read from a shell as well:
+ * <pre>
+ * algorithm Random
+ * seed 0
+ * size 100000000
+ * shard index offset size crc32c path
+ * </pre>
+ */
+public class ShardManifest {
+    private final String algorithm;
+    private final long seed;
+    private final long size;
+    private final List<Shard> shards;
+
+    public ShardManifest(long seed, long size, List<Shard> shards) {
+        this(GeneratorBackend.LCG, seed, size, shards);
+    }
+
+    public ShardManifest(String algorithm, long seed, long size, List<Shard> shards) {
+        this.algorithm = algorithm;
+        this.seed = seed;
+        this.size = size;
+        this.shards = Collections.unmodifiableList(new ArrayList<>(shards));
+    }
+
+    public String getAlgorithm() {
+        return algorithm;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void write(Path path) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(path)) {
+            writer.write("algorithm " + algorithm);
+            writer.newLine();
+            writer.write("seed " + seed);
+            writer.newLine();
+            writer.write("size " + size);
+            writer.newLine();
+            for (Shard shard : shards) {
+                writer.write(String.format("shard %d %d %d %08x %s",
+                        shard.getIndex(), shard.getOffset(), shard.getSize(), shard.getChecksum(), shard.getPath()));
+                writer.newLine();
+            }
+        }
+    }
+
+    public static ShardManifest read(Path path) throws IOException {
+        String algorithm = GeneratorBackend.LCG;
+        long seed = 0;
+        long size = 0;
+        List<Shard> shards = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                String[] fields = line.split(" ", 6);
+                switch (fields[0]) {
+                    case "algorithm" -> algorithm = fields[1];
+                    case "seed" -> seed = Long.parseLong(fields[1]);
+                    case "size" -> size = Long.parseLong(fields[1]);
+                    case "shard" -> shards.add(new Shard(Integer.parseInt(fields[1]), Long.parseLong(fields[2]),
+                            Long.parseLong(fields[3]), Long.parseLong(fields[4], 16), fields[5]));
+                    default -> throw new IOException("Unexpected line in manifest " + path + ": " + line);
+                }
+            }
+        }
+        return new ShardManifest(algorithm, seed, size, shards);
+    }
+
+    @Override
+    public String toString() {
+        return "ShardManifest{algorithm=" + algorithm + ", seed=" + seed + ", size=" + size + ", shards=" + shards + "}";
+    }
+
+    /**
+     * Bytes [offset, offset + size) of the sequence stored in the file path
+     */
+    public static class Shard {
+        private final int index;
+        private final long offset;
+        private final long size;
+        private final long checksum;
+        private final String path;
+
+        public Shard(int index, long offset, long size, long checksum, String path) {
+            this.index = index;
+            this.offset = offset;
+            this.size = size;
+            this.checksum = checksum;
+            this.path = path;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public long getOffset() {
+            return offset;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        /**
+         * CRC32C of the shard bytes
+         */
+        public long getChecksum() {
+            return checksum;
+        }
+
+        public String getPath() {
+            return path;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Shard{index=%d, offset=%d, size=%d, crc32c=%08x, path=%s}", index, offset, size, checksum, path);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.luxoft;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.FileChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Destination of the generated stream: a file, stdout, a TCP or Unix-domain socket, memory or any WritableByteChannel.
+ * Bytes are written in order with blocking channel.write(), so a slow consumer slows the generator down.
+ */
+public interface Sink extends Closeable {
+
+    /**
+     * Underlying channel. For files and sockets it is the real NIO channel, so FileChannel.transferTo()
+     * can send bytes to it without copying them through user space.
+     */
+    WritableByteChannel channel();
+
+    /**
+     * Sends bytes [position, position + count) of the file to the sink with FileChannel.transferTo()
+     * (sendfile/copy_file_range for file and socket sinks)
+     */
+    default long transferFrom(FileChannel source, long position, long count) throws IOException {
+        long transferred = 0;
+        while (transferred < count) {
+            long bytes = source.transferTo(position + transferred, count - transferred, channel());
+            if (bytes <= 0 && position + transferred >= source.size())
+                break;
+            transferred += bytes;
+        }
+        return transferred;
+    }
+
+    static Sink of(WritableByteChannel channel) {
+        return new ChannelSink(channel, true, "channel " + channel);
+    }
+
+    static Sink file(Path path) throws IOException {
+        return new ChannelSink(FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING), true, "file " + path);
+    }
+
+    /**
+     * Standard output of the process (e.g. a pipe to the consumer), i.e. System.out at the time of the call,
+     * so it can be redirected with System.setOut(). Closing the sink does not close stdout.
+     * Logs of the methods writing to a sink go to System.err, so the stream carries only the generated bytes.
+     */
+    static Sink stdout() {
+        return new ChannelSink(new PrintStreamChannel(System.out), false, "stdout");
+    }
+
+    static Sink tcp(String host, int port) throws IOException {
+        return new ChannelSink(SocketChannel.open(new InetSocketAddress(host, port)), true, "tcp " + host + ":" + port);
+    }
+
+    static Sink unixSocket(Path path) throws IOException {
+        return new ChannelSink(SocketChannel.open(UnixDomainSocketAddress.of(path)), true, "unix socket " + path);
+    }
+
+    static MemorySink memory() {
+        return new MemorySink();
+    }
+}
@@ -0,0 +1,15 @@
+package com.luxoft;
+
+/**
+ * Kind of threads for blocking (I/O) stages
+ */
+public enum ThreadMode {
+    /**
+     * Pools of platform threads, the only option before JDK 21
+     */
+    PLATFORM,
+    /**
+     * One virtual thread per task, falls back to PLATFORM when the JVM has no virtual threads
+     */
+    VIRTUAL
+}
@@ -0,0 +1,79 @@
+package com.luxoft;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorShape;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Experimental multi-lane version of {@link Lcg#nextBytes(long, long, byte[], int, int)} on the Vector API
+ * (incubator module, run with --add-modules jdk.incubator.vector, see {@link #isAvailable()}).
+ * Lane i holds the state of step i of a block of L steps, all lanes advance by the L-step jump at once,
+ * so one vector multiply-add gives L ints. Ints of the lanes are stored in lane order,
+ * which is exactly the order of Random(seed).nextBytes().
+ */
+public final class VectorLcg {
+    private static final String MODULE = "jdk.incubator.vector";
+
+    private VectorLcg() {
+    }
+
+    /**
+     * Whether the JVM was started with the Vector API module
+     */
+    public static boolean isAvailable() {
+        return ModuleLayer.boot().findModule(MODULE).isPresent();
+    }
+
+    /**
+     * Number of LCG lanes per vector on this CPU, e.g. 4 for AVX2, 8 for AVX-512
+     */
+    public static int lanes() {
+        return Lanes.LONGS.length();
+    }
+
+    /**
+     * Fills bytes[offset, offset + length) with bytes [streamOffset, streamOffset + length)
+     * of the sequence, which new Random(seed).nextBytes() generates.
+     */
+    public static void nextBytes(long seed, long streamOffset, byte[] bytes, int offset, int length) {
+        int head = (int) Math.min(length, (Integer.BYTES - streamOffset % Integer.BYTES) % Integer.BYTES);
+        if (head > 0)
+            LcgRandom.atByte(seed, streamOffset).nextBytes(bytes, offset, head);
+        long position = streamOffset + head;
+        int i = offset + head;
+        int end = offset + length;
+        if (end - i >= Lanes.BLOCK_BYTES) {
+            long state = Lcg.stateAtByte(seed, position);
+            long[] states = new long[Lanes.LONGS.length()];
+            for (int lane = 0; lane < states.length; lane++) {
+                state = Lcg.nextState(state);
+                states[lane] = state;
+            }
+            LongVector s = LongVector.fromArray(Lanes.LONGS, states, 0);
+            for (int limit = end - Lanes.BLOCK_BYTES; i <= limit; i += Lanes.BLOCK_BYTES, position += Lanes.BLOCK_BYTES) {
+                ByteVector out = s.lanewise(VectorOperators.LSHR, 16)
+                        .convertShape(VectorOperators.L2I, Lanes.INTS, 0)
+                        .reinterpretAsBytes();
+                out.intoArray(bytes, i);
+                s = s.mul(Lanes.JUMP_MULTIPLIER).add(Lanes.JUMP_ADDEND).and(Lcg.MASK);
+            }
+        }
+        if (i < end)
+            LcgRandom.atByte(seed, position).nextBytes(bytes, i, end - i);
+    }
+
+    /**
+     * Vector constants live in a nested class, so they are initialized only on first use
+     */
+    private static final class Lanes {
+        static final VectorSpecies<Long> LONGS = LongVector.SPECIES_PREFERRED;
+        static final VectorSpecies<Integer> INTS =
+                VectorSpecies.of(int.class, VectorShape.forBitSize(LONGS.vectorBitSize() / 2));
+        static final int BLOCK_BYTES = LONGS.length() * Integer.BYTES;
+        // (a, c) of the jump by L steps: state(n + L) = (a * state(n) + c) mod 2^48
+        static final long JUMP_ADDEND = Lcg.skip(0, LONGS.length());
+        static final long JUMP_MULTIPLIER = (Lcg.skip(1, LONGS.length()) - JUMP_ADDEND) & Lcg.MASK;
+    }
+}
@@ -0,0 +1,36 @@
+package com.luxoft;
+
+/**
+ * Result of checking a file against the Random(seed) sequence
+ */
+public class VerificationResult {
+    private final long size;
+    private final long firstMismatch;
+
+    public VerificationResult(long size, long firstMismatch) {
+        this.size = size;
+        this.firstMismatch = firstMismatch;
+    }
+
+    public boolean isMatched() {
+        return firstMismatch < 0;
+    }
+
+    /**
+     * Offset of the first differing byte (or of the end of a too short/long file), -1 if the file is correct
+     */
+    public long getFirstMismatch() {
+        return firstMismatch;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return isMatched()
+                ? String.format("File matches the sequence, size = %d", size)
+                : String.format("File differs from the sequence at offset %d, expected size = %d", firstMismatch, size);
+    }
+}
@@ -0,0 +1,77 @@
+package com.luxoft;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Access to virtual threads (JDK 21+) by reflection, so the project still builds and runs on Java 17.
+ * Without virtual threads every method falls back to platform threads.
+ */
+public final class VirtualThreads {
+    private static final Method NEW_PER_TASK_EXECUTOR;
+    private static final Method OF_VIRTUAL;
+    private static final Method BUILDER_NAME;
+    private static final Method BUILDER_UNSTARTED;
+
+    static {
+        Method newPerTaskExecutor = null;
+        Method ofVirtual = null;
+        Method builderName = null;
+        Method builderUnstarted = null;
+        if (Runtime.version().feature() >= 21) {
+            try {
+                newPerTaskExecutor = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                ofVirtual = Thread.class.getMethod("ofVirtual");
+                Class<?> builder = Class.forName("java.lang.Thread$Builder");
+                builderName = builder.getMethod("name", String.class);
+                builderUnstarted = builder.getMethod("unstarted", Runnable.class);
+            } catch (ReflectiveOperationException ex) {
+                System.out.println("Virtual threads are not available: " + ex.getMessage());
+                newPerTaskExecutor = null;
+            }
+        }
+        NEW_PER_TASK_EXECUTOR = newPerTaskExecutor;
+        OF_VIRTUAL = ofVirtual;
+        BUILDER_NAME = builderName;
+        BUILDER_UNSTARTED = builderUnstarted;
+    }
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return NEW_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * Executor starting a new thread for every task: virtual for VIRTUAL mode if supported, otherwise cached platform threads
+     */
+    public static ExecutorService newPerTaskExecutor(ThreadMode mode) {
+        if (mode == ThreadMode.VIRTUAL && isSupported())
+            return (ExecutorService) invoke(NEW_PER_TASK_EXECUTOR, null);
+        return Executors.newCachedThreadPool();
+    }
+
+    /**
+     * Not started thread of the given mode
+     */
+    public static Thread newThread(ThreadMode mode, String name, Runnable task) {
+        if (mode == ThreadMode.VIRTUAL && isSupported()) {
+            Object builder = invoke(BUILDER_NAME, invoke(OF_VIRTUAL, null), name);
+            return (Thread) invoke(BUILDER_UNSTARTED, builder, task);
+        }
+        return new Thread(task, name);
+    }
+
+    private static Object invoke(Method method, Object target, Object... args) {
+        try {
+            return method.invoke(target, args);
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        } catch (InvocationTargetException e) {
+            throw new RuntimeException(e.getCause());
+        }
+    }
+}
@@ -3,31 +3,63 @@ package com.luxoft;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.PrintStream;
 import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.random.RandomGenerator;
 import java.util.stream.IntStream;
+import java.util.zip.CRC32C;
 
 /**
  * You need to write to a file the sequence of 100,000,000 bytes generated by java Random class with seed = 0.
  * In the fastest way possible.
  */
-public class Worker {
+public class Worker implements AutoCloseable {
     private static int N_THREADS = Runtime.getRuntime().availableProcessors();
     private static String DEFAULT_CATALOG = "results";
     private static int BATCH_SIZE = 512*8;
+    private static int WRITE_SLICE_SIZE = 1024*1024;
+    private static int RING_CHUNK_SIZE = 256*1024;
+    private static int PARALLEL_CHUNK_SIZE = 1024*1024;
+    private static int QUEUE_DEPTH = 8;
+    private static long CHECKPOINT_INTERVAL = 64L*1024*1024;
 
-    private Random random;
-    private int fileSize;
+    private GeneratorBackend backend;
+    private RandomGenerator random;
+    private ByteGenerator generator;
+    private long seed;
+    private long fileSize;
+    private int threads = N_THREADS;
+    private int batchSize = BATCH_SIZE;
+    private long windowSize = MappedFileWriter.DEFAULT_WINDOW_SIZE;
+    private Durability durability = Durability.NONE;
+    private ThreadMode threadMode = ThreadMode.PLATFORM;
+    private int queueDepth = QUEUE_DEPTH;
+    private long checkpointInterval = CHECKPOINT_INTERVAL;
+    private long forceInterval = MappedFileWriter.DEFAULT_FORCE_INTERVAL;
     private String catalog;
-    public Worker(long seed, int fileSize, String catalog) {
-        random = new Random(seed);
+    private ForkJoinPool pool;
+    private FileVerifier verifier;
+    private SeededByteSource byteSource;
+    private RandomnessAnalyzer analyzer;
+    private Metrics metrics = Metrics.NOOP;
+    public Worker(long seed, long fileSize, String catalog) {
+        this.seed = seed;
+        setBackend(GeneratorBackend.lcg(seed));
         if (catalog == null || "".equals(catalog.trim()))
             catalog = DEFAULT_CATALOG;
         File dir = new File(catalog);
@@ -36,75 +68,205 @@ public class Worker {
         this.fileSize = fileSize;
     }
 
+    public synchronized void setThreads(int threads) {
+        this.threads = threads;
+        this.verifier = null;
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+    /**
+     * Algorithm of the generated sequence: Random (default) or a RandomGeneratorFactory name,
+     * e.g. L64X128MixRandom, Xoshiro256PlusPlus, SplittableRandom, see {@link GeneratorBackend}.
+     * Restarts the sequence of the stateful methods from its beginning.
+     */
+    public void setAlgorithm(String algorithm) {
+        setBackend(GeneratorBackend.of(algorithm, seed));
+    }
+    /**
+     * Binary column of new Random(seed).nextInt() (nextLong(), nextDouble(), nextGaussian()) values
+     * instead of nextBytes(), see {@link ColumnBackend}. GAUSSIAN columns can only be generated in order:
+     * parallel methods then generate them with one generator in order (writers and verification stay parallel),
+     * methods, which need to seek (sharded, multi-process, resumable, readBytesFromSource), throw IllegalStateException.
+     */
+    public void setColumn(ColumnType type, ByteOrder order) {
+        setBackend(new ColumnBackend(seed, type, order));
+    }
+    private void setBackend(GeneratorBackend backend) {
+        this.backend = backend;
+        this.random = backend.newRandomGenerator();
+        this.generator = backend.atByte(0);
+        this.byteSource = null;
+    }
+    public GeneratorBackend getBackend() {
+        return backend;
+    }
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+    public void setWindowSize(long windowSize) {
+        this.windowSize = windowSize;
+    }
+    /**
+     * Threads of the generator and writer stages of generateAndWriteMappedByteBufferBatchesQueue,
+     * VIRTUAL needs JDK 21, otherwise platform threads are used
+     */
+    public void setThreadMode(ThreadMode threadMode) {
+        this.threadMode = threadMode;
+    }
+    /**
+     * Number of writes in flight of generateAndWriteAsyncFileChannel
+     */
+    public void setQueueDepth(int queueDepth) {
+        this.queueDepth = queueDepth;
+    }
+    /**
+     * How many generated bytes of generateAndWriteResumable are forced and recorded in the checkpoint at once
+     */
+    public void setCheckpointInterval(long checkpointInterval) {
+        this.checkpointInterval = checkpointInterval;
+    }
+    /**
+     * Instrumentation of phases, batches, threads and queues, disabled ({@link Metrics#NOOP}) by default
+     */
+    public void setMetrics(Metrics metrics) {
+        this.metrics = metrics == null ? Metrics.NOOP : metrics;
+    }
+    /**
+     * Optional stage of the ring pipeline: every written chunk is also passed to the analyzer
+     */
+    public void setAnalyzer(RandomnessAnalyzer analyzer) {
+        this.analyzer = analyzer;
+    }
+    public void setDurability(Durability durability) {
+        this.durability = durability;
+    }
+    /**
+     * @param forceInterval for PERIODIC durability - how many written bytes are forced at once
+     */
+    public void setDurability(Durability durability, long forceInterval) {
+        this.durability = durability;
+        this.forceInterval = forceInterval;
+    }
+
     // Generating
-    public byte[] generateBytesLibParallel() { // if you repeat this method it will give you another result
+    public byte[] generateBytesLibParallel() { // each batch jumps to its own generator state, result equals generateBytesLib()
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "generateBytesLibParallel";
-        byte[] bytes = new byte[fileSize];
-        List<BatchIndex> batches = getBatchesByNumThreads();
-        ExecutorService generatorExecutor = Executors.newFixedThreadPool(N_THREADS);
+        long tAllocate = metrics.time();
+        byte[] bytes = new byte[arraySize()];
+        metrics.recordPhase(Phase.ALLOCATE, tAllocate, bytes.length);
+        // without random access every batch would generate the sequence up to its start, so one generator does it all
+        List<BatchIndex> batches = backend.isRandomAccess() ? getParallelBatches() : List.of(new BatchIndex(0, fileSize));
+        ExecutorService generatorExecutor = getExecutor();
 
         List<CompletableFuture<Void>> futures = batches.stream()
                 .map(batch -> CompletableFuture.runAsync(() -> {
-                    int start = batch.getStart();
-                    int length = batch.getEnd() - batch.getStart();
+                    long tBatch = metrics.time();
+                    JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+                    event.begin();
+                    int start = (int) batch.getStart();
+                    int length = (int) (batch.getEnd() - batch.getStart());
 
-                    nextBytesLibBatch(bytes, start, length);
+                    backend.atByte(start).nextBytes(bytes, start, length);
+                    event.end(start, length);
+                    metrics.recordPhase(Phase.GENERATE, tBatch, length);
+                    metrics.recordBatch(tBatch);
+                    metrics.recordBusy(tBatch);
                 }, generatorExecutor))
                 .toList();
         futures.forEach(CompletableFuture::join);
-        generatorExecutor.shutdown();
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return bytes;
     }
+    public byte[] generateBytesLibVector() { // experimental: L lanes of the LCG in one core, see VectorLcg
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        long tAllocate = metrics.time();
+        byte[] bytes = new byte[arraySize()];
+        metrics.recordPhase(Phase.ALLOCATE, tAllocate, bytes.length);
+        long tGenerate = metrics.time();
+        if (!GeneratorBackend.LCG.equals(backend.getAlgorithm())) {
+            backend.atByte(0).nextBytes(bytes); // lanes exist only for the LCG
+        } else if (VectorLcg.isAvailable()) {
+            VectorLcg.nextBytes(seed, 0, bytes, 0, bytes.length);
+        } else {
+            System.out.println("Vector API is not available (run with --add-modules jdk.incubator.vector), using scalar LCG");
+            Lcg.nextBytes(seed, 0, bytes, 0, bytes.length);
+        }
+        metrics.recordPhase(Phase.GENERATE, tGenerate, bytes.length);
+        long tEnd = System.currentTimeMillis();
+        job.end("generateBytesLibVector", fileSize);
+        logTime("generateBytesLibVector", tStart, tEnd);
+        return bytes;
+    }
     public byte[] generateBytesLib() {
         long tStart = System.currentTimeMillis();
-        byte[] bytes = new byte[fileSize];
-        random.nextBytes(bytes);
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        long tAllocate = metrics.time();
+        byte[] bytes = new byte[arraySize()];
+        metrics.recordPhase(Phase.ALLOCATE, tAllocate, bytes.length);
+        long tGenerate = metrics.time();
+        generator.nextBytes(bytes);
+        metrics.recordPhase(Phase.GENERATE, tGenerate, bytes.length);
         long tEnd = System.currentTimeMillis();
+        job.end("generateBytesLib", fileSize);
         logTime("generateBytesLib", tStart, tEnd);
         return bytes;
     }
     public byte[] generateBytes() { // not optimal
         long tStart = System.currentTimeMillis();
-        byte[] bytes = new byte[fileSize];
-        for (int i = 0; i < fileSize; i++) {
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        byte[] bytes = new byte[arraySize()];
+        for (int i = 0; i < bytes.length; i++) {
             bytes[i] = generateByte();
         }
         long tEnd = System.currentTimeMillis();
+        job.end("generateBytes", fileSize);
         logTime("generateBytes", tStart, tEnd);
         return bytes;
     }
     public byte[] generateBytesParallel() { // not optimal
         long tStart = System.currentTimeMillis();
-        ExecutorService generatorExecutor = Executors.newFixedThreadPool(N_THREADS);
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        ExecutorService generatorExecutor = getExecutor();
 
-        byte[] bytes = new byte[fileSize];
-        List<BatchIndex> batches = getBatchesByNumThreads();
+        byte[] bytes = new byte[arraySize()];
+        List<BatchIndex> batches = getParallelBatches();
         List<CompletableFuture<Void>> futures = batches.stream()
                 .map(batch -> CompletableFuture.runAsync(() -> {
-                    System.out.println("started thread = " + Thread.currentThread().getName());
-                    for (int i = batch.getStart(); i < batch.getEnd(); i++) {
+                    //System.out.println("started thread = " + Thread.currentThread().getName());
+                    for (int i = (int) batch.getStart(); i < batch.getEnd(); i++) {
                         bytes[i] = generateByte();
                     }
                 }, generatorExecutor)).toList();
         futures.forEach(CompletableFuture::join);
         long tEnd = System.currentTimeMillis();
+        job.end("generateBytesParallel", fileSize);
         logTime("generateBytesParallel", tStart, tEnd);
-        generatorExecutor.shutdown();
         return bytes;
     }
     public byte[] generateBytesParallel2() {
         long tStart = System.currentTimeMillis();
-        byte[] bytes = new byte[fileSize];
-        ExecutorService generatorExecutor = Executors.newFixedThreadPool(N_THREADS);
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        byte[] bytes = new byte[arraySize()];
+        ExecutorService generatorExecutor = getExecutor();
 
-        List<BatchIndex> batches = getBatchesByNumThreads();
+        List<BatchIndex> batches = getParallelBatches();
         List<CompletableFuture<byte[]>> futures = batches.stream()
                 .map(batch -> CompletableFuture.supplyAsync(() -> {
                     //System.out.println("started thread = " + Thread.currentThread().getName());
-                    int size = batch.getEnd() - batch.getStart();
+                    int size = (int) (batch.getEnd() - batch.getStart());
                     byte[] batchResult = new byte[size];
                     random.nextBytes(batchResult);
                     return batchResult;
@@ -122,21 +284,23 @@ public class Worker {
             }
         }
         long tEnd = System.currentTimeMillis();
+        job.end("generateBytesParallel", fileSize);
         logTime("generateBytesParallel", tStart, tEnd);
-        generatorExecutor.shutdown();
         return bytes;
     }
     public byte[] generateBytesParallel3() {
         long tStart = System.currentTimeMillis();
-        byte[] bytes = new byte[fileSize];
-        ExecutorService generatorExecutor = Executors.newFixedThreadPool(N_THREADS);
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        byte[] bytes = new byte[arraySize()];
+        ExecutorService generatorExecutor = getExecutor();
 
-        List<BatchIndex> batches = getBatchesByNumThreads();
+        List<BatchIndex> batches = getParallelBatches();
         List<Future<byte[]>> futures = new ArrayList<>();
         for (BatchIndex batch : batches) {
             Future<byte[]> future = generatorExecutor.submit(() -> {
                 //System.out.println("started thread = " + Thread.currentThread().getName());
-                int size = batch.getEnd() - batch.getStart();
+                int size = (int) (batch.getEnd() - batch.getStart());
                 byte[] batchResult = new byte[size];
                 random.nextBytes(batchResult);
                 return batchResult;
@@ -155,194 +319,325 @@ public class Worker {
             }
         }
         long tEnd = System.currentTimeMillis();
+        job.end("generateBytesParallel", fileSize);
         logTime("generateBytesParallel", tStart, tEnd);
-        generatorExecutor.shutdown();
         return bytes;
     }
     public Byte[] generateBytesStreamParallel() {
         long tStart = System.currentTimeMillis();
-        Byte[] bytes = IntStream.range(0, fileSize).boxed()
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        Byte[] bytes = IntStream.range(0, arraySize()).boxed()
                 .map(number -> generateByte())
                 .toArray(Byte[]::new);
         long tEnd = System.currentTimeMillis();
+        job.end("generateBytesStreamParallel", fileSize);
         logTime("generateBytesStreamParallel", tStart, tEnd);
         return bytes;
     }
+    public byte[] generateBytesChunkStreamParallel() { // chunks of a parallel stream, no boxing of single bytes
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        byte[] bytes = new byte[arraySize()];
+        ByteBuffer result = ByteBuffer.wrap(bytes);
+        ChunkSpliterator.stream(backend, fileSize, PARALLEL_CHUNK_SIZE, true).forEachOrdered(result::put);
+        long tEnd = System.currentTimeMillis();
+        job.end("generateBytesChunkStreamParallel", fileSize);
+        logTime("generateBytesChunkStreamParallel", tStart, tEnd);
+        return bytes;
+    }
 
     // Writing
     public String writeRandomAccessFileParallel(byte[] bytes) {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "writeRandomAccessFileParallel";
         String fileName = getFileName(opName);
-        ExecutorService writerExecutor = Executors.newFixedThreadPool(N_THREADS);
+        ExecutorService writerExecutor = getExecutor();
 
-        List<BatchIndex> batches = getBatchesByNumThreads();
-        List<CompletableFuture<Void>> futures = batches.stream()
-                .map(batch -> CompletableFuture.runAsync(() -> {
-                    try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
-                        try {
-                            int start = batch.getStart();
-                            int length = batch.getEnd() - batch.getStart();
-                            raf.seek(start);
-                            raf.write(bytes, start, length);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
-                    } catch (IOException ex) {
-                        System.out.println(ex.getMessage());
-                    }
-                }, writerExecutor))
-                .toList();
-        futures.forEach(CompletableFuture::join);
-        writerExecutor.shutdown();
+        List<BatchIndex> batches = getParallelBatches();
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            List<CompletableFuture<Void>> futures = batches.stream()
+                    .map(batch -> CompletableFuture.runAsync(() -> {
+                        long tBatch = metrics.time();
+                        int start = (int) batch.getStart();
+                        int length = (int) (batch.getEnd() - batch.getStart());
+                        writeFully(channel, ByteBuffer.wrap(bytes, start, length), start);
+                        metrics.recordPhase(Phase.WRITE, tBatch, length);
+                        metrics.recordBatch(tBatch);
+                        metrics.recordBusy(tBatch);
+                    }, writerExecutor))
+                    .toList();
+            futures.forEach(CompletableFuture::join);
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
     public String writeFileOutputStream(byte[] bytes) {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "writeFileOutputStream";
         String fileName = getFileName(opName);
         try (FileOutputStream fos = new FileOutputStream(fileName)) {
+            long tWrite = metrics.time();
             fos.write(bytes);
+            metrics.recordPhase(Phase.WRITE, tWrite, bytes.length);
         } catch (IOException ex) {
             System.out.println(ex.getMessage());
         }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
     public String writeRandomAccessFile(byte[] bytes) {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "writeRandomAccessFile";
         String fileName = getFileName(opName);
         try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
+            long tWrite = metrics.time();
             raf.write(bytes);
+            metrics.recordPhase(Phase.WRITE, tWrite, bytes.length);
         } catch (IOException ex) {
             System.out.println(ex.getMessage());
         }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
     public String writeMappedByteBuffer(byte[] bytes) {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "writeMappedByteBuffer";
         String fileName = getFileName(opName);
-        try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
-            FileChannel channel = raf.getChannel();
-            MappedByteBuffer mbb = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
-            mbb.put(bytes);
-
+        try {
+            putBytesByWindows(fileName, bytes, 0, bytes.length);
         } catch (IOException ex) {
             System.out.println(ex.getMessage());
         }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
     public String writeMappedByteBufferParallel(byte[] bytes) {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "writeMappedByteBufferParallel";
         String fileName = getFileName(opName);
-        ExecutorService writerExecutor = Executors.newFixedThreadPool(N_THREADS);
+        ExecutorService writerExecutor = getExecutor();
 
-        List<BatchIndex> batches = getBatchesByNumThreads();
+        List<BatchIndex> batches = getParallelBatches();
         List<CompletableFuture<Void>> futures = batches.stream()
                 .map(batch -> CompletableFuture.runAsync(() -> {
-                    try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
-                        try {
-                            FileChannel channel = raf.getChannel();
-                            MappedByteBuffer mbb = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
-                            int start = batch.getStart();
-                            int length = batch.getEnd() - batch.getStart();
-
-                            mbb.put(start, bytes, start, length);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
-                        }
+                    long tBatch = metrics.time();
+                    try {
+                        putBytesByWindows(fileName, bytes, (int) batch.getStart(), (int) batch.getEnd());
                     } catch (IOException ex) {
                         System.out.println(ex.getMessage());
                     }
+                    metrics.recordBatch(tBatch);
+                    metrics.recordBusy(tBatch);
                 }, writerExecutor))
                 .toList();
         futures.forEach(CompletableFuture::join);
-        writerExecutor.shutdown();
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+    public String writeDirectIO(byte[] bytes) { // bypasses page cache, see DirectFileWriter
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "writeDirectIO";
+        String fileName = getFileName(opName);
+
+        try (DirectFileWriter writer = new DirectFileWriter(Path.of(fileName), bytes.length, WRITE_SLICE_SIZE, 1)) {
+            writer.setMetrics(metrics);
+            writer.setDurability(durability); // forced on close, after the padded tail is truncated
+            for (int start = 0; start < bytes.length; start += WRITE_SLICE_SIZE) {
+                int length = Math.min(WRITE_SLICE_SIZE, bytes.length - start);
+                long tCopy = metrics.time();
+                ByteBuffer buffer = writer.acquire().put(bytes, start, length);
+                metrics.recordPhase(Phase.COPY, tCopy, length);
+                writer.write(buffer, start);
+            }
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
 
     public String generateAndWriteMappedByteBuffer() { // not-fast
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "generateAndWriteMappedByteBuffer";
         String fileName = getFileName(opName);
-        try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
-            FileChannel channel = raf.getChannel();
-            MappedByteBuffer mbb = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        try {
             byte[] bytes = generateBytesLib();
-            mbb.put(bytes);
+            putBytesByWindows(fileName, bytes, 0, bytes.length);
         } catch (IOException ex) {
             System.out.println(ex.getMessage());
         }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
     public String generateAndWriteMappedByteBufferBatches() {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "generateAndWriteMappedByteBufferBatches";
         String fileName = getFileName(opName);
 
-        try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
-            FileChannel channel = raf.getChannel();
-            MappedByteBuffer mbb = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
-            byte[] bytes = new byte[BATCH_SIZE];
-
-            int start = 0;
-            while (true) {
-                int end = Math.min(start + BATCH_SIZE, fileSize);
-                int length = end - start;
-                nextBytesLibBatch(bytes, 0, length);
-                mbb.put(start, bytes, 0, length);
-                if (end == fileSize)
-                    break;
-                start = end;
+        try (MappedFileWriter writer = newMappedFileWriter(fileName, 0, fileSize)) {
+            byte[] bytes = new byte[batchSize];
+            while (writer.hasNextWindow()) {
+                MappedByteBuffer mbb = writer.nextWindow();
+                int windowLength = mbb.limit();
+                int start = 0;
+                while (start < windowLength) {
+                    int length = Math.min(batchSize, windowLength - start);
+                    long tBatch = metrics.time();
+                    JfrEvents.BatchGenerated generated = new JfrEvents.BatchGenerated();
+                    generated.begin();
+                    nextBytesLibBatch(bytes, 0, length);
+                    generated.end(writer.getWindowStart() + start, length);
+                    metrics.recordPhase(Phase.GENERATE, tBatch, length);
+                    long tCopy = metrics.time();
+                    JfrEvents.RegionWritten written = new JfrEvents.RegionWritten();
+                    written.begin();
+                    mbb.put(start, bytes, 0, length);
+                    written.end(writer.getWindowStart() + start, length);
+                    metrics.recordPhase(Phase.COPY, tCopy, length);
+                    metrics.recordBatch(tBatch);
+                    start += length;
+                    writer.markWritten(start);
+                }
             }
         } catch (IOException ex) {
             System.out.println(ex.getMessage());
         }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+    public String generateAndWriteMappedByteBufferDirect() { // zero-copy: no heap byte[] at all
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateAndWriteMappedByteBufferDirect";
+        String fileName = getFileName(opName);
+
+        try (MappedFileWriter writer = newMappedFileWriter(fileName, 0, fileSize)) {
+            while (writer.hasNextWindow()) {
+                MappedByteBuffer mbb = writer.nextWindow();
+                int windowLength = mbb.limit();
+                for (int end = Math.min(WRITE_SLICE_SIZE, windowLength); ; end = Math.min(end + WRITE_SLICE_SIZE, windowLength)) {
+                    long tBatch = metrics.time();
+                    JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+                    event.begin();
+                    int length = end - mbb.position();
+                    mbb.limit(end);
+                    generator.nextBytes(mbb);
+                    event.end(writer.getWindowStart() + end - length, length);
+                    metrics.recordPhase(Phase.GENERATE, tBatch, length);
+                    metrics.recordBatch(tBatch);
+                    writer.markWritten(end);
+                    if (end == windowLength)
+                        break;
+                }
+            }
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
 
     private void generateBatchBytesAndSentInfoToQueue(List<BatchIndex> batches, ArrayBlockingQueue<BatchIndex> queue, byte[] bytes) {
         for (BatchIndex batch : batches) {
-            int length = batch.getEnd() - batch.getStart();
-            nextBytesLibBatch(bytes, batch.getStart(), length);
+            long tBatch = metrics.time();
+            JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+            event.begin();
+            int length = (int) (batch.getEnd() - batch.getStart());
+            nextBytesLibBatch(bytes, (int) batch.getStart(), length);
+            event.end(batch.getStart(), length);
+            metrics.recordPhase(Phase.GENERATE, tBatch, length);
+            metrics.recordBatch(tBatch);
+            metrics.recordBusy(tBatch);
             try {
-                queue.put(batch);
+                if (!queue.offer(batch)) {
+                    metrics.recordStall();
+                    long tIdle = metrics.time();
+                    JfrEvents.PipelineStall stall = new JfrEvents.PipelineStall();
+                    stall.begin();
+                    queue.put(batch);
+                    stall.end("generator", batch.getStart());
+                    metrics.recordIdle(tIdle);
+                }
             } catch (InterruptedException e) {
                 throw new RuntimeException(e);
             }
+            metrics.recordQueueDepth(queue.size());
         }
     }
 
     private void writeBatchesToFileFromQueue(String fileName, List<BatchIndex> batches, ArrayBlockingQueue<BatchIndex> queue, byte[] bytes) {
-        try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
-            FileChannel channel = raf.getChannel();
-            MappedByteBuffer mbb = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        try (MappedFileWriter writer = newMappedFileWriter(fileName, 0, bytes.length)) {
+            MappedByteBuffer mbb = null;
             for (int i = 0; i < batches.size(); i++) {
-                BatchIndex batch = null;
-                try {
-                    batch = queue.take();
-                } catch (InterruptedException e) {
-                    throw new RuntimeException(e);
+                BatchIndex batch = queue.poll();
+                if (batch == null) {
+                    metrics.recordStall();
+                    long tIdle = metrics.time();
+                    JfrEvents.PipelineStall stall = new JfrEvents.PipelineStall();
+                    stall.begin();
+                    try {
+                        batch = queue.take();
+                    } catch (InterruptedException e) {
+                        throw new RuntimeException(e);
+                    }
+                    stall.end("writer", batch.getStart());
+                    metrics.recordIdle(tIdle);
                 }
-                if (batch == null) continue;
-                int length = batch.getEnd() - batch.getStart();
-                mbb.put(batch.getStart(), bytes, batch.getStart(), length);
+                long tBatch = metrics.time();
+                JfrEvents.RegionWritten event = new JfrEvents.RegionWritten();
+                event.begin();
+                int start = (int) batch.getStart();
+                while (start < batch.getEnd()) { // batch can cross the window border
+                    if (mbb == null || start >= writer.getWindowStart() + mbb.limit())
+                        mbb = writer.nextWindow();
+                    int windowPosition = (int) (start - writer.getWindowStart());
+                    int length = (int) Math.min(batch.getEnd() - start, mbb.limit() - windowPosition);
+                    mbb.put(windowPosition, bytes, start, length);
+                    start += length;
+                    writer.markWritten(windowPosition + length);
+                }
+                event.end(batch.getStart(), batch.getEnd() - batch.getStart());
+                metrics.recordPhase(Phase.COPY, tBatch, batch.getEnd() - batch.getStart());
+                metrics.recordBusy(tBatch);
             }
         } catch (IOException ex) {
             System.out.println(ex.getMessage());
@@ -351,16 +646,20 @@ public class Worker {
 
     public String generateAndWriteMappedByteBufferBatchesQueue() {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "generateAndWriteMappedByteBufferBatchesQueue";
         String fileName = getFileName(opName);
 
-        byte[] bytes = new byte[fileSize];
+        byte[] bytes = new byte[arraySize()];
         List<BatchIndex> chunks = getBatchesBySize();
         ArrayBlockingQueue<BatchIndex> queue = new ArrayBlockingQueue<>(chunks.size(), true);
 
-        Thread generateThread = new Thread(() -> generateBatchBytesAndSentInfoToQueue(chunks, queue, bytes));
+        Thread generateThread = VirtualThreads.newThread(threadMode, "queue-generator",
+                () -> generateBatchBytesAndSentInfoToQueue(chunks, queue, bytes));
         generateThread.start();
-        Thread writeThread = new Thread(() -> writeBatchesToFileFromQueue(fileName, chunks, queue, bytes));
+        Thread writeThread = VirtualThreads.newThread(threadMode, "queue-writer",
+                () -> writeBatchesToFileFromQueue(fileName, chunks, queue, bytes));
         writeThread.start();
         try {
             generateThread.join();
@@ -369,47 +668,514 @@ public class Worker {
             throw new RuntimeException(e);
         }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+    public String generateAndWriteRingPipeline() { // backends without random access are pipelined from one generator
+        return generateAndWriteRingPipeline(backend.isRandomAccess() ? threads : 1, threads);
+    }
+    /**
+     * Several generators and writers connected by a lock-free ring of reusable buffers, see {@link RingPipeline}
+     */
+    public String generateAndWriteRingPipeline(int generators, int writers) {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateAndWriteRingPipeline";
+        String fileName = getFileName(opName);
+
+        RingPipeline pipeline = new RingPipeline(backend, 0, fileSize, RING_CHUNK_SIZE, 2 * (generators + writers));
+        pipeline.setAnalyzer(analyzer);
+        pipeline.setMetrics(metrics);
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            pipeline.run(channel, generators, writers);
+            if (durability != Durability.NONE) {
+                long tForce = metrics.time();
+                channel.force(true);
+                metrics.recordPhase(Phase.FORCE, tForce, fileSize);
+            }
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
+    /**
+     * Splits the sequence into shards, which are written concurrently (each by its own ring pipeline)
+     * into the directories in round-robin order, so every device gets its share of the bandwidth.
+     * Returns the name of the {@link ShardManifest}, which lists shards in sequence order with CRC32C checksums.
+     */
+    public String generateAndWriteSharded(List<String> directories, int shards) {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateAndWriteSharded";
+        requireRandomAccess(opName);
+        if (directories.isEmpty() || shards <= 0)
+            throw new IllegalArgumentException("Need at least one directory and one shard");
+        String fileName = getFileName(opName, ".manifest");
+        String baseName = Path.of(fileName).getFileName().toString().replace(".manifest", "");
+        directories.forEach(directory -> new File(directory).mkdirs());
+
+        long shardSize = (fileSize + shards - 1) / shards;
+        int generators = Math.max(1, threads / shards);
+        ExecutorService shardExecutor = getExecutor(); // at most `threads` shards run at once, the rest queue
+        try {
+            List<CompletableFuture<ShardManifest.Shard>> futures = IntStream.range(0, shards)
+                    .filter(index -> index * shardSize < fileSize || index == 0)
+                    .mapToObj(index -> {
+                        long start = index * shardSize;
+                        long size = Math.min(shardSize, fileSize - start);
+                        String shardName = String.format("%s/%s-%03d.txt",
+                                directories.get(index % directories.size()), baseName, index);
+                        return CompletableFuture.supplyAsync(() -> writeShard(shardName, index, start, size, generators), shardExecutor);
+                    })
+                    .toList();
+            List<ShardManifest.Shard> written = futures.stream().map(CompletableFuture::join).toList();
+            new ShardManifest(backend.getAlgorithm(), seed, fileSize, written).write(Path.of(fileName));
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        } catch (CompletionException ex) {
+            System.out.println(ex.getCause().getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+
+    private ShardManifest.Shard writeShard(String shardName, int index, long start, long size, int generators) {
+        RingPipeline pipeline = new RingPipeline(backend, start, size, RING_CHUNK_SIZE, 2 * (generators + 1));
+        CRC32C checksum = new CRC32C();
+        pipeline.setChecksum(checksum);
+        pipeline.setAnalyzer(analyzer);
+        pipeline.setMetrics(metrics);
+        try (FileChannel channel = FileChannel.open(Path.of(shardName),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            pipeline.run(channel, generators, 1);
+            if (durability != Durability.NONE) {
+                long tForce = metrics.time();
+                channel.force(true);
+                metrics.recordPhase(Phase.FORCE, tForce, size);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new ShardManifest.Shard(index, start, size, checksum.getValue(), shardName);
+    }
+
     public String generateAndWriteRandomAccessFileParallel() {
         long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
         String opName = "generateAndWriteRandomAccessFileParallel";
         String fileName = getFileName(opName);
-        ExecutorService writerExecutor = Executors.newFixedThreadPool(N_THREADS);
+        ExecutorService writerExecutor = getExecutor();
 
-        List<BatchIndex> batches = getBatchesByNumThreads();
-        List<CompletableFuture<Void>> futures = batches.stream()
-                .map(batch -> CompletableFuture.runAsync(() -> {
-                    try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
-                        try {
-                            int start = batch.getStart();
-                            int length = batch.getEnd() - batch.getStart();
-                            byte[] bytes = new byte[length];
-                            random.nextBytes(bytes);
-                            raf.seek(start);
-                            raf.write(bytes, 0, length);
-                        } catch (IOException e) {
-                            throw new RuntimeException(e);
+        List<BatchIndex> batches = getParallelBatches();
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (!backend.isRandomAccess()) { // one generator in order, parallel writers
+                RingPipeline pipeline = new RingPipeline(backend, 0, fileSize, RING_CHUNK_SIZE, 2 * (1 + threads));
+                pipeline.setMetrics(metrics);
+                pipeline.run(channel, 1, threads);
+            } else {
+                List<CompletableFuture<Void>> futures = batches.stream()
+                        .map(batch -> CompletableFuture.runAsync(() -> {
+                            long tTask = metrics.time();
+                            ByteGenerator batchGenerator = backend.atByte(batch.getStart());
+                            byte[] bytes = new byte[batchSize];
+                            for (long start = batch.getStart(); start < batch.getEnd(); start += batchSize) {
+                                int length = (int) Math.min(batchSize, batch.getEnd() - start);
+                                long tBatch = metrics.time();
+                                JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+                                event.begin();
+                                batchGenerator.nextBytes(bytes, 0, length);
+                                event.end(start, length);
+                                metrics.recordPhase(Phase.GENERATE, tBatch, length);
+                                long tWrite = metrics.time();
+                                writeFully(channel, ByteBuffer.wrap(bytes, 0, length), start);
+                                metrics.recordPhase(Phase.WRITE, tWrite, length);
+                                metrics.recordBatch(tBatch);
+                            }
+                            metrics.recordBusy(tTask);
+                        }, writerExecutor))
+                        .toList();
+                futures.forEach(CompletableFuture::join);
+            }
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+
+    public String generateAndWriteResumable() {
+        return generateAndWriteResumable(getFileName("generateAndWriteResumable"));
+    }
+    /**
+     * Like generateAndWriteRandomAccessFileParallel, but every checkpointInterval bytes the file is forced and
+     * the completed ranges are saved into the fileName.checkpoint sidecar, see {@link Checkpoint}.
+     * If the sidecar of the same sequence exists (the previous run died), the tails of its ranges are validated
+     * and only the missing batches are generated. The sidecar is deleted when the file is complete.
+     */
+    public String generateAndWriteResumable(String fileName) {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateAndWriteResumable";
+        requireRandomAccess(opName);
+        Path sidecar = Path.of(fileName + ".checkpoint");
+        ExecutorService writerExecutor = getExecutor();
+
+        try (FileChannel channel = FileChannel.open(Path.of(fileName),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            Checkpoint checkpoint = loadCheckpoint(sidecar, channel);
+            List<BatchIndex> batches = getParallelBatches().stream()
+                    .filter(batch -> !checkpoint.contains(batch.getStart(), batch.getEnd()))
+                    .toList();
+            List<BatchIndex> completed = new ArrayList<>();
+            AtomicLong sinceCheckpoint = new AtomicLong();
+            long interval = checkpointInterval;
+            List<CompletableFuture<Void>> futures = batches.stream()
+                    .map(batch -> CompletableFuture.runAsync(() -> {
+                        long tBatch = metrics.time();
+                        JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+                        event.begin();
+                        int length = (int) (batch.getEnd() - batch.getStart());
+                        ByteBuffer buffer = ByteBuffer.allocate(length);
+                        backend.atByte(batch.getStart()).nextBytes(buffer);
+                        event.end(batch.getStart(), length);
+                        metrics.recordPhase(Phase.GENERATE, tBatch, length);
+                        long tWrite = metrics.time();
+                        writeFully(channel, buffer.flip(), batch.getStart());
+                        metrics.recordPhase(Phase.WRITE, tWrite, length);
+                        metrics.recordBatch(tBatch);
+                        metrics.recordBusy(tBatch);
+                        synchronized (completed) {
+                            completed.add(batch);
                         }
-                    } catch (IOException ex) {
-                        System.out.println(ex.getMessage());
-                    }
-                }, writerExecutor))
-                .toList();
-        futures.forEach(CompletableFuture::join);
-        writerExecutor.shutdown();
+                        if (crossesInterval(sinceCheckpoint, length, interval))
+                            saveCheckpoint(checkpoint, completed, channel, sidecar);
+                    }, writerExecutor))
+                    .toList();
+            futures.forEach(CompletableFuture::join);
+            saveCheckpoint(checkpoint, completed, channel, sidecar);
+            if (checkpoint.contains(0, fileSize) || fileSize == 0)
+                Files.deleteIfExists(sidecar);
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        } catch (CompletionException ex) {
+            System.out.println(ex.getCause().getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+
+    /**
+     * Adds the bytes to the counter, which is kept below the interval, and tells whether they completed an interval.
+     * The update is atomic, so no bytes are lost between threads and exactly one thread saves per interval.
+     */
+    static boolean crossesInterval(AtomicLong counter, long bytes, long interval) {
+        long before = counter.getAndUpdate(current -> (current + bytes) % interval);
+        return before + bytes >= interval;
+    }
+
+    /**
+     * Checkpoint of the previous run with validated tails, or an empty one
+     */
+    private Checkpoint loadCheckpoint(Path sidecar, FileChannel channel) throws IOException {
+        if (Files.exists(sidecar)) {
+            Checkpoint checkpoint = Checkpoint.read(sidecar);
+            if (checkpoint.matches(backend, fileSize)) {
+                long dropped = checkpoint.validate(channel, backend);
+                System.out.println(String.format("Resuming %s: %d bytes done, %d bytes of damaged tails dropped",
+                        sidecar, checkpoint.getCompletedBytes(), dropped));
+                return checkpoint;
+            }
+            System.out.println("Checkpoint " + sidecar + " belongs to another sequence, starting from zero");
+        }
+        return new Checkpoint(backend.getAlgorithm(), seed, fileSize);
+    }
+
+    /**
+     * Forces the batches written so far and only then records them, so the sidecar never lists bytes,
+     * which could be lost in a crash
+     */
+    private void saveCheckpoint(Checkpoint checkpoint, List<BatchIndex> completed, FileChannel channel, Path sidecar) {
+        synchronized (checkpoint) {
+            List<BatchIndex> durable;
+            synchronized (completed) {
+                durable = new ArrayList<>(completed);
+                completed.clear();
+            }
+            if (durable.isEmpty())
+                return;
+            try {
+                long tForce = metrics.time();
+                channel.force(false);
+                metrics.recordPhase(Phase.FORCE, tForce, 0);
+                durable.forEach(batch -> checkpoint.add(batch.getStart(), batch.getEnd()));
+                checkpoint.write(sidecar);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * Generates every batch straight into a block-aligned buffer and writes it with O_DIRECT, see {@link DirectFileWriter}
+     */
+    public String generateAndWriteDirectIO() {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateAndWriteDirectIO";
+        String fileName = getFileName(opName);
+        ExecutorService writerExecutor = getExecutor();
+
+        List<BatchIndex> batches = getParallelBatches();
+        try (DirectFileWriter writer = new DirectFileWriter(Path.of(fileName), fileSize, PARALLEL_CHUNK_SIZE, 2 * threads)) {
+            writer.setMetrics(metrics);
+            writer.setDurability(durability); // forced on close, after the padded tail is truncated
+            // without random access one generator fills the buffers in order on this thread, writes stay parallel
+            ByteGenerator ordered = backend.isRandomAccess() ? null : backend.atByte(0);
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (BatchIndex batch : batches) {
+                if (ordered == null) {
+                    futures.add(CompletableFuture.runAsync(() -> {
+                        long tBatch = metrics.time();
+                        ByteBuffer buffer = generateDirectBatch(writer, backend.atByte(batch.getStart()), batch);
+                        writeDirectBatch(writer, buffer, batch);
+                        metrics.recordBusy(tBatch);
+                    }, writerExecutor));
+                } else {
+                    ByteBuffer buffer = generateDirectBatch(writer, ordered, batch);
+                    futures.add(CompletableFuture.runAsync(() -> writeDirectBatch(writer, buffer, batch), writerExecutor));
+                }
+            }
+            // all batches finish (or fail) before the writer is closed
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).join();
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        } catch (CompletionException ex) {
+            System.out.println(ex.getCause().getMessage());
+        }
         long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
         logTime(opName, tStart, tEnd);
         return fileName;
     }
 
+    /**
+     * Fills a pooled buffer of the writer with the batch, the buffer goes back to the pool if generation fails
+     */
+    private ByteBuffer generateDirectBatch(DirectFileWriter writer, ByteGenerator batchGenerator, BatchIndex batch) {
+        long tBatch = metrics.time();
+        JfrEvents.BatchGenerated event = new JfrEvents.BatchGenerated();
+        event.begin();
+        int length = (int) (batch.getEnd() - batch.getStart());
+        ByteBuffer buffer = writer.acquire();
+        try {
+            buffer.limit(length);
+            batchGenerator.nextBytes(buffer);
+        } catch (RuntimeException e) {
+            writer.release(buffer); // otherwise later acquires wait for it forever
+            throw e;
+        }
+        event.end(batch.getStart(), length);
+        metrics.recordPhase(Phase.GENERATE, tBatch, length);
+        metrics.recordBatch(tBatch);
+        return buffer;
+    }
+
+    private static void writeDirectBatch(DirectFileWriter writer, ByteBuffer buffer, BatchIndex batch) {
+        try {
+            writer.write(buffer, batch.getStart());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * One generator keeps queueDepth writes of an AsynchronousFileChannel in flight, see {@link AsyncWriteEngine}
+     */
+    public String generateAndWriteAsyncFileChannel() {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateAndWriteAsyncFileChannel";
+        String fileName = getFileName(opName);
+
+        AsyncWriteEngine engine = new AsyncWriteEngine(queueDepth, WRITE_SLICE_SIZE);
+        engine.setDurability(durability);
+        engine.setMetrics(metrics);
+        try {
+            engine.write(Path.of(fileName), backend, fileSize);
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+
+    /**
+     * Like generateAndWriteRandomAccessFileParallel, but ranges of the file are written by separate JVMs,
+     * see {@link ProcessCoordinator}
+     */
+    public String generateAndWriteMultiProcess(int processes) {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateAndWriteMultiProcess";
+        requireRandomAccess(opName);
+        String fileName = getFileName(opName);
+
+        ProcessCoordinator coordinator = new ProcessCoordinator(seed, fileSize, processes);
+        coordinator.setForce(durability != Durability.NONE);
+        coordinator.setAlgorithm(backend.getAlgorithm());
+        try {
+            for (PartitionResult result : coordinator.run(Path.of(fileName))) {
+                metrics.recordPhase(Phase.WRITE, metrics.time() - result.getNanos(), result.getSize());
+                System.out.println(result);
+            }
+        } catch (IOException ex) {
+            System.out.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd);
+        return fileName;
+    }
+
+    /**
+     * Generates the sequence into a sink (stdout, socket, pipe, memory...) in order.
+     * Several generators fill a ring of direct buffers, one writer drains it into the sink, see {@link RingPipeline}.
+     * Time and errors are logged to System.err, so a stdout sink carries only the sequence.
+     */
+    public void generateToSink(Sink sink) {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "generateToSink";
+
+        int generators = backend.isRandomAccess() ? threads : 1;
+        RingPipeline pipeline = new RingPipeline(backend, 0, fileSize, RING_CHUNK_SIZE, 2 * (generators + 1));
+        pipeline.setAnalyzer(analyzer);
+        pipeline.setMetrics(metrics);
+        try {
+            pipeline.run(sink.channel(), generators);
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd, System.err);
+    }
+    /**
+     * Sends an already generated file to the sink without copying it through the heap (FileChannel.transferTo)
+     */
+    public void transferFileToSink(String fileName, Sink sink) {
+        long tStart = System.currentTimeMillis();
+        JfrEvents.Job job = new JfrEvents.Job();
+        job.begin();
+        String opName = "transferFileToSink";
+
+        try (FileChannel channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ)) {
+            long tWrite = metrics.time();
+            long transferred = sink.transferFrom(channel, 0, channel.size());
+            metrics.recordPhase(Phase.WRITE, tWrite, transferred);
+        } catch (IOException ex) {
+            System.err.println(ex.getMessage());
+        }
+        long tEnd = System.currentTimeMillis();
+        job.end(opName, fileSize);
+        logTime(opName, tStart, tEnd, System.err);
+    }
+
+    /**
+     * Methods, which seek the sequence at many offsets, would regenerate it up to every offset without random access
+     */
+    private void requireRandomAccess(String opName) {
+        if (!backend.isRandomAccess())
+            throw new IllegalStateException(opName + " seeks " + backend + " at arbitrary offsets, but it can only be"
+                    + " generated in order, use generateAndWriteRingPipeline() or another single-file method");
+    }
+
+    private MappedFileWriter newMappedFileWriter(String fileName, long start, long size) throws IOException {
+        MappedFileWriter writer = new MappedFileWriter(fileName, start, size, windowSize, durability, forceInterval);
+        writer.setMetrics(metrics);
+        return writer;
+    }
+
+    /**
+     * Copies bytes[start, end) to the same region of the file, window by window
+     */
+    private void putBytesByWindows(String fileName, byte[] bytes, int start, int end) throws IOException {
+        try (MappedFileWriter writer = newMappedFileWriter(fileName, start, end - start)) {
+            int offset = start;
+            while (writer.hasNextWindow()) {
+                MappedByteBuffer mbb = writer.nextWindow();
+                for (int position = 0; position < mbb.limit(); ) {
+                    int length = Math.min(WRITE_SLICE_SIZE, mbb.limit() - position);
+                    long tCopy = metrics.time();
+                    JfrEvents.RegionWritten event = new JfrEvents.RegionWritten();
+                    event.begin();
+                    mbb.put(position, bytes, offset, length);
+                    event.end(offset, length);
+                    metrics.recordPhase(Phase.COPY, tCopy, length);
+                    offset += length;
+                    position += length;
+                    writer.markWritten(position);
+                }
+            }
+        }
+    }
+
+    /**
+     * One long-lived work-stealing pool for all parallel methods of this worker (sharded shards too), created on first use
+     */
+    synchronized ExecutorService getExecutor() {
+        if (pool == null)
+            pool = new ForkJoinPool(threads);
+        return pool;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (pool != null) {
+            pool.shutdown();
+            pool = null;
+        }
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) {
+        JfrEvents.RegionWritten event = new JfrEvents.RegionWritten();
+        event.begin();
+        long start = position;
+        try {
+            while (buffer.hasRemaining())
+                position += channel.write(buffer, position);
+            event.end(start, position - start);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     // Reading
     public byte[] readBytesFromFile(String fileName) {
-        byte[] bytes = new byte[fileSize];
+        byte[] bytes = new byte[arraySize()];
         try (RandomAccessFile raf = new RandomAccessFile(fileName, "r")) {
             try {
-                raf.read(bytes);
+                raf.readFully(bytes, 0, (int) Math.min(bytes.length, raf.length()));
             } catch (IOException e) {
                 throw new RuntimeException(e);
             }
@@ -419,20 +1185,50 @@ public class Worker {
         return bytes;
     }
 
-    // Utils
-    public boolean checkRandomization(byte[] bytes) {
-        int[] bytesCount = new int[256];
-        for (byte aByte : bytes) {
-            int index = (int)aByte + 128;
-            bytesCount[index]++;
+    /**
+     * Same bytes as readBytesFromFile() of [offset, offset + length) of a file written by this worker,
+     * but computed on demand (with a block cache) instead of read from disk, see {@link SeededByteSource}
+     */
+    public byte[] readBytesFromSource(long offset, int length) {
+        byte[] bytes = new byte[(int) Math.max(0, Math.min(length, fileSize - offset))];
+        getByteSource().read(offset, ByteBuffer.wrap(bytes));
+        return bytes;
+    }
+    public synchronized SeededByteSource getByteSource() {
+        requireRandomAccess("readBytesFromSource");
+        if (byteSource == null) {
+            byteSource = new SeededByteSource(backend, fileSize,
+                    SeededByteSource.DEFAULT_BLOCK_SIZE, SeededByteSource.DEFAULT_CACHE_BLOCKS);
+            byteSource.setMetrics(metrics);
         }
+        return byteSource;
+    }
+
+    /**
+     * Checks the file against this worker's algorithm, seed and size without loading it into heap, see {@link FileVerifier}.
+     * Chunk buffers of the verifier are reused by every call.
+     */
+    public VerificationResult verify(String fileName) {
+        try {
+            return getVerifier().verify(Path.of(fileName), backend, fileSize, getExecutor());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    private synchronized FileVerifier getVerifier() {
+        if (verifier == null)
+            verifier = new FileVerifier(threads);
+        return verifier;
+    }
 
+    // Utils
+    public boolean checkRandomization(byte[] bytes) {
+        QualityReport report = RandomnessAnalyzer.analyze(bytes, getExecutor());
         List<Integer> notGeneratedNumbers = new ArrayList<>();
-        for (int i = 0; i < bytesCount.length; i++) {
-            if (bytesCount[i] == 0)
-                notGeneratedNumbers.add(i);
+        for (int value : report.getMissingValues()) {
+            notGeneratedNumbers.add((int) (byte) value + 128); // same numbering as signed byte + 128
         }
-        System.out.print("Check randomization: ");
+        System.out.println("Check randomization: " + report);
         if (notGeneratedNumbers.isEmpty()) {
             System.out.println("All numbers were generated");
             return true;
@@ -444,12 +1240,26 @@ public class Worker {
             return false;
         }
     }
-    private List<BatchIndex> getBatchesByNumThreads() {
+    /**
+     * Statistical quality report of the file, read in parallel chunks, see {@link RandomnessAnalyzer}
+     */
+    public QualityReport analyze(String fileName) {
+        try {
+            return RandomnessAnalyzer.analyze(Path.of(fileName), getExecutor());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    /**
+     * Many small batches instead of one batch per thread: idle threads of the pool steal them,
+     * so one slow core or disk stall doesn't delay the whole job
+     */
+    private List<BatchIndex> getParallelBatches() {
         List<BatchIndex> result = new ArrayList<>();
-        int start = 0;
-        int batchSize = fileSize / N_THREADS;
+        long start = 0;
+        long batchSize = PARALLEL_CHUNK_SIZE;
         while (true) {
-            int end = Math.min(start + batchSize, fileSize);
+            long end = Math.min(start + batchSize, fileSize);
             result.add(new BatchIndex(start, end));
             if (end == fileSize)
                 break;
@@ -459,10 +1269,10 @@ public class Worker {
     }
     private List<BatchIndex> getBatchesBySize() {
         List<BatchIndex> result = new ArrayList<>();
-        int start = 0;
-        int batchSize = BATCH_SIZE;
+        long start = 0;
+        long batchSize = this.batchSize;
         while (true) {
-            int end = Math.min(start + batchSize, fileSize);
+            long end = Math.min(start + batchSize, fileSize);
             result.add(new BatchIndex(start, end));
             if (end == fileSize)
                 break;
@@ -470,19 +1280,20 @@ public class Worker {
         }
         return result;
     }
+    /**
+     * In-memory methods work with one byte[], so they are limited by the max array size
+     */
+    private int arraySize() {
+        if (fileSize > Integer.MAX_VALUE - 8)
+            throw new IllegalStateException("File size " + fileSize + " is too big for in-memory method, use a mapped-window one");
+        return (int) fileSize;
+    }
     private byte generateByte() {
         int number = random.nextInt(256) - 128;
         return (byte)number;
     }
     private void nextBytesLibBatch(byte[] bytes, int offset, int length) {
-        int len = offset + length;
-        for (int i = offset; i < len; ) {
-            for (int rnd = random.nextInt(),
-                 n = Math.min(len - i, Integer.SIZE / Byte.SIZE);
-                 n-- > 0; rnd >>= Byte.SIZE) {
-                bytes[i++] = (byte) rnd;
-            }
-        }
+        generator.nextBytes(bytes, offset, length);
     }
     private void nextBytesLib(byte[] bytes) {
         for (int i = 0, len = bytes.length; i < len; )
@@ -492,29 +1303,55 @@ public class Worker {
                 bytes[i++] = (byte)rnd;
     }
     public void logTime(String operationName, long tStart, long tEnd) {
-        System.out.println(String.format("Operation: %s - execution time = %d ms", operationName, tEnd - tStart));
+        logTime(operationName, tStart, tEnd, System.out);
+    }
+    private void logTime(String operationName, long tStart, long tEnd, PrintStream log) {
+        metrics.recordJob(operationName, (tEnd - tStart) * 1_000_000, fileSize);
+        log.println(String.format("Operation: %s - execution time = %d ms", operationName, tEnd - tStart));
     }
 
     private String getFileName(String operationName) {
-        return catalog + operationName + "-" + getTimeSuffix() + ".txt";
+        return getFileName(operationName, ".txt");
+    }
+    /**
+     * Reserves a new file opName-HH-mm-ss[-n].extension by creating it atomically,
+     * so runs finishing in the same second (in this or another process) never share a file.
+     * Every .txt output gets a .meta sidecar with the algorithm and seed of its sequence.
+     */
+    private String getFileName(String operationName, String extension) {
+        String baseName = catalog + operationName + "-" + getTimeSuffix();
+        for (int n = 0; ; n++) {
+            String fileName = baseName + (n == 0 ? "" : "-" + n) + extension;
+            try {
+                Files.createFile(Path.of(fileName));
+                if (".txt".equals(extension))
+                    backend.writeMetadata(Path.of(fileName + ".meta"), fileSize);
+                return fileName;
+            } catch (FileAlreadyExistsException ex) {
+                // taken by another run, try the next number
+            } catch (IOException ex) {
+                System.out.println(ex.getMessage());
+                return fileName;
+            }
+        }
     }
     private String getTimeSuffix() {
         return LocalDateTime.now().format(DateTimeFormatter.ofPattern("HH-mm-ss"));
     }
     private static class BatchIndex {
-        private int start;
-        private int end;
+        private long start;
+        private long end;
 
-        public BatchIndex(int start, int end) {
+        public BatchIndex(long start, long end) {
             this.start = start;
             this.end = end;
         }
 
-        public int getStart() {
+        public long getStart() {
             return start;
         }
 
-        public int getEnd() {
+        public long getEnd() {
             return end;
         }
     }
@@ -0,0 +1,79 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.Timeout;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+
+public class AsyncWriteEngineTest {
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @Timeout(60) // a lost slot blocks the next write() forever
+    public void test_write_after_a_failed_write_reuses_every_slot() throws IOException {
+        final int len = 20 * BUFFER_SIZE + 7;
+        AsyncWriteEngine engine = new AsyncWriteEngine(4, BUFFER_SIZE);
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> engine.write(tempDir.resolve("failed.txt"), failingAfter(GeneratorBackend.lcg(0), 10), len));
+
+        for (int repeat = 0; repeat < 2; repeat++) {
+            Path path = tempDir.resolve("ok-" + repeat + ".txt");
+            engine.write(path, 0, len);
+            byte[] expected = new byte[len];
+            new Random(0).nextBytes(expected);
+            Assertions.assertArrayEquals(expected, Files.readAllBytes(path));
+        }
+    }
+
+    /**
+     * Backend whose generator throws on its n-th batch, with earlier writes still in flight
+     */
+    private static GeneratorBackend failingAfter(GeneratorBackend backend, int batches) {
+        return new GeneratorBackend() {
+            @Override
+            public String getAlgorithm() {
+                return backend.getAlgorithm();
+            }
+
+            @Override
+            public long getSeed() {
+                return backend.getSeed();
+            }
+
+            @Override
+            public ByteGenerator atByte(long byteOffset) {
+                ByteGenerator generator = backend.atByte(byteOffset);
+                return new ByteGenerator() {
+                    private int calls;
+
+                    @Override
+                    public void nextBytes(byte[] bytes, int offset, int length) {
+                        generator.nextBytes(bytes, offset, length);
+                    }
+
+                    @Override
+                    public void nextBytes(ByteBuffer dst) {
+                        if (++calls == batches)
+                            throw new IllegalStateException("Generator failed");
+                        generator.nextBytes(dst);
+                    }
+                };
+            }
+
+            @Override
+            public RandomGenerator newRandomGenerator() {
+                return backend.newRandomGenerator();
+            }
+        };
+    }
+}
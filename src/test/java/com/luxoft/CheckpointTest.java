@@ -0,0 +1,100 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+public class CheckpointTest {
+    private static final int MB = 1024 * 1024;
+    private static final int LEN = 10 * MB + 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_ranges_are_merged_and_survive_round_trip() throws IOException {
+        Checkpoint checkpoint = new Checkpoint("Xoshiro256PlusPlus", 3, 100);
+        checkpoint.add(20, 30);
+        checkpoint.add(0, 10);
+        checkpoint.add(10, 20);
+        checkpoint.add(50, 60);
+        checkpoint.remove(55, 57);
+        Path sidecar = tempDir.resolve("file.checkpoint");
+        checkpoint.write(sidecar);
+
+        Checkpoint read = Checkpoint.read(sidecar);
+        Assertions.assertEquals(List.of("[0, 30)", "[50, 55)", "[57, 60)"), read.getRanges().stream().map(Object::toString).toList());
+        Assertions.assertEquals(38, read.getCompletedBytes());
+        Assertions.assertTrue(read.contains(5, 25));
+        Assertions.assertFalse(read.contains(25, 51));
+        Assertions.assertTrue(read.matches(GeneratorBackend.of("Xoshiro256PlusPlus", 3), 100));
+        Assertions.assertFalse(read.matches(GeneratorBackend.lcg(3), 100));
+        Assertions.assertFalse(Files.exists(tempDir.resolve("file.checkpoint.tmp")));
+    }
+
+    @Test
+    public void test_exactly_one_thread_saves_per_interval() {
+        AtomicLong counter = new AtomicLong();
+        AtomicInteger saves = new AtomicInteger();
+        IntStream.range(0, 100_000).parallel().forEach(i -> {
+            if (Worker.crossesInterval(counter, 3, 1000))
+                saves.incrementAndGet();
+        });
+        Assertions.assertEquals(300_000 / 1000, saves.get());
+        Assertions.assertEquals(300_000 % 1000, counter.get());
+    }
+
+    @Test
+    public void test_complete_run_removes_sidecar() {
+        byte[] expected = new byte[LEN];
+        new Random(0).nextBytes(expected);
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.setCheckpointInterval(2 * MB);
+            String fileName = worker.generateAndWriteResumable();
+            Assertions.assertArrayEquals(expected, worker.readBytesFromFile(fileName));
+            Assertions.assertFalse(Files.exists(Path.of(fileName + ".checkpoint")));
+        }
+    }
+
+    /**
+     * A crashed run: some ranges are recorded, the tail of the last one is damaged and there is a gap.
+     * Resuming regenerates the damaged tail and the gap, but not the recorded ranges.
+     */
+    @Test
+    public void test_resume_skips_finished_ranges_and_repairs_tail() throws IOException {
+        byte[] expected = new byte[LEN];
+        new Random(0).nextBytes(expected);
+        Path file = tempDir.resolve("resumable.txt");
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.write(expected, 0, 6 * MB);
+            raf.seek(MB + 7);
+            raf.write(expected[MB + 7] + 1); // inside a finished range, must stay as it is
+            raf.seek(6 * MB - 1);
+            raf.write(expected[6 * MB - 1] + 1); // damaged tail
+        }
+        Checkpoint checkpoint = new Checkpoint(GeneratorBackend.LCG, 0, LEN);
+        checkpoint.add(0, 3 * MB);
+        checkpoint.add(4 * MB, 6 * MB);
+        checkpoint.write(Path.of(file + ".checkpoint"));
+
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.generateAndWriteResumable(file.toString());
+        }
+        byte[] written = Files.readAllBytes(file);
+        Assertions.assertEquals(LEN, written.length);
+        Assertions.assertEquals((byte) (expected[MB + 7] + 1), written[MB + 7]);
+        written[MB + 7] = expected[MB + 7];
+        Assertions.assertArrayEquals(expected, written);
+        Assertions.assertFalse(Files.exists(Path.of(file + ".checkpoint")));
+    }
+}
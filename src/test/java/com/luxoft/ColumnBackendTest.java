@@ -0,0 +1,151 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.random.RandomGenerator;
+
+public class ColumnBackendTest {
+    private static final int VALUES = 250_001;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_columns_match_random_calls() {
+        for (ColumnType type : ColumnType.values()) {
+            for (ByteOrder order : List.of(ByteOrder.LITTLE_ENDIAN, ByteOrder.BIG_ENDIAN)) {
+                byte[] expected = expectedColumn(3, type, order, VALUES);
+                ColumnBackend backend = new ColumnBackend(3, type, order);
+
+                byte[] bytes = new byte[expected.length];
+                ByteGenerator generator = backend.atByte(0);
+                for (int start = 0; start < bytes.length; start += 10_007) // odd steps split values
+                    generator.nextBytes(bytes, start, Math.min(10_007, bytes.length - start));
+                Assertions.assertArrayEquals(expected, bytes, backend.getAlgorithm());
+
+                ByteBuffer buffer = ByteBuffer.allocateDirect(expected.length);
+                backend.atByte(0).nextBytes(buffer);
+                Assertions.assertEquals(ByteBuffer.wrap(expected), buffer.flip(), backend.getAlgorithm());
+
+                for (int offset : new int[]{3, 8, 12, 100_001}) {
+                    byte[] tail = new byte[1000];
+                    backend.atByte(offset).nextBytes(tail);
+                    Assertions.assertArrayEquals(Arrays.copyOfRange(expected, offset, offset + 1000), tail,
+                            backend.getAlgorithm() + " at " + offset);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_algorithm_name_round_trip() {
+        ColumnBackend backend = new ColumnBackend(1, ColumnType.GAUSSIAN, ByteOrder.BIG_ENDIAN);
+        Assertions.assertEquals("Random.nextGaussian.BE", backend.getAlgorithm());
+        ColumnBackend parsed = (ColumnBackend) GeneratorBackend.of(backend.getAlgorithm(), 1);
+        Assertions.assertEquals(ColumnType.GAUSSIAN, parsed.getType());
+        Assertions.assertEquals(ByteOrder.BIG_ENDIAN, parsed.getOrder());
+        Assertions.assertFalse(parsed.isRandomAccess());
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GeneratorBackend.of("Random.nextFloat.LE", 1));
+    }
+
+    @Test
+    public void test_worker_writes_columns() throws IOException {
+        final int values = 1_000_001;
+        try (Worker worker = new Worker(0, 8L * values, tempDir.toString())) {
+            worker.setColumn(ColumnType.DOUBLE, ByteOrder.BIG_ENDIAN);
+            byte[] doubles = expectedColumn(0, ColumnType.DOUBLE, ByteOrder.BIG_ENDIAN, values);
+            Assertions.assertArrayEquals(doubles, worker.generateBytesLibParallel());
+            Assertions.assertArrayEquals(doubles, worker.readBytesFromFile(worker.generateAndWriteRandomAccessFileParallel()));
+
+            worker.setColumn(ColumnType.GAUSSIAN, ByteOrder.LITTLE_ENDIAN);
+            String fileName = worker.generateAndWriteRingPipeline(); // one generator, parallel writers
+            Assertions.assertArrayEquals(expectedColumn(0, ColumnType.GAUSSIAN, ByteOrder.LITTLE_ENDIAN, values),
+                    worker.readBytesFromFile(fileName));
+            Assertions.assertEquals("algorithm Random.nextGaussian.LE", Files.readAllLines(Path.of(fileName + ".meta")).get(0));
+        }
+    }
+
+    @Test
+    public void test_gaussian_column_is_generated_in_order_or_rejected() throws IOException {
+        final int values = 1_000_001;
+        byte[] expected = expectedColumn(0, ColumnType.GAUSSIAN, ByteOrder.BIG_ENDIAN, values);
+        try (Worker worker = new Worker(0, 8L * values, tempDir.toString())) {
+            worker.setColumn(ColumnType.GAUSSIAN, ByteOrder.BIG_ENDIAN);
+            Assertions.assertArrayEquals(expected, worker.generateBytesLibParallel());
+            Assertions.assertArrayEquals(expected, worker.generateBytesChunkStreamParallel());
+            for (String fileName : List.of(worker.generateAndWriteRandomAccessFileParallel(), worker.generateAndWriteDirectIO())) {
+                Assertions.assertArrayEquals(expected, worker.readBytesFromFile(fileName), fileName);
+                Assertions.assertTrue(worker.verify(fileName).isMatched(), fileName);
+            }
+            Assertions.assertThrows(IllegalStateException.class, () -> worker.generateAndWriteSharded(List.of(tempDir.toString()), 2));
+            Assertions.assertThrows(IllegalStateException.class, () -> worker.generateAndWriteMultiProcess(2));
+            Assertions.assertThrows(IllegalStateException.class, worker::generateAndWriteResumable);
+            Assertions.assertThrows(IllegalStateException.class, () -> worker.readBytesFromSource(0, 10));
+        }
+    }
+
+    @Test
+    public void test_verifier_seeks_gaussian_column_once() throws IOException {
+        final int values = 1_000_001;
+        Path path = tempDir.resolve("gaussian.bin");
+        Files.write(path, expectedColumn(5, ColumnType.GAUSSIAN, ByteOrder.LITTLE_ENDIAN, values));
+        ColumnBackend column = new ColumnBackend(5, ColumnType.GAUSSIAN, ByteOrder.LITTLE_ENDIAN);
+        AtomicInteger seeks = new AtomicInteger();
+        GeneratorBackend counting = new GeneratorBackend() {
+            @Override
+            public String getAlgorithm() {
+                return column.getAlgorithm();
+            }
+
+            @Override
+            public long getSeed() {
+                return column.getSeed();
+            }
+
+            @Override
+            public ByteGenerator atByte(long byteOffset) {
+                seeks.incrementAndGet();
+                return column.atByte(byteOffset);
+            }
+
+            @Override
+            public boolean isRandomAccess() {
+                return column.isRandomAccess();
+            }
+
+            @Override
+            public RandomGenerator newRandomGenerator() {
+                return column.newRandomGenerator();
+            }
+        };
+        VerificationResult result = new FileVerifier(4).verify(path, counting, 8L * values, ForkJoinPool.commonPool());
+        Assertions.assertTrue(result.isMatched(), result.toString());
+        Assertions.assertEquals(1, seeks.get());
+    }
+
+    private static byte[] expectedColumn(long seed, ColumnType type, ByteOrder order, int values) {
+        Random random = new Random(seed);
+        ByteBuffer buffer = ByteBuffer.allocate(values * type.getBytes()).order(order);
+        for (int i = 0; i < values; i++) {
+            switch (type) {
+                case INT -> buffer.putInt(random.nextInt());
+                case LONG -> buffer.putLong(random.nextLong());
+                case DOUBLE -> buffer.putDouble(random.nextDouble());
+                case GAUSSIAN -> buffer.putDouble(random.nextGaussian());
+            }
+        }
+        return buffer.array();
+    }
+}
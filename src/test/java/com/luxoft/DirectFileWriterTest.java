@@ -0,0 +1,81 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+public class DirectFileWriterTest {
+    private static final int LEN = 10_000_003;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_generate_and_write_direct_io_with_unaligned_tail() throws IOException {
+        String fileName;
+        try (Worker worker = new Worker(3, LEN, tempDir.toString())) {
+            fileName = worker.generateAndWriteDirectIO();
+        }
+        Assertions.assertTrue(FileVerifier.verify(Path.of(fileName), 3, LEN).isMatched());
+    }
+
+    @Test
+    public void test_write_direct_io_from_heap() {
+        byte[] bytes = new byte[LEN];
+        new Random(0).nextBytes(bytes);
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.setDurability(Durability.FORCE_AT_END);
+            String fileName = worker.writeDirectIO(bytes);
+            Assertions.assertArrayEquals(bytes, worker.readBytesFromFile(fileName));
+        }
+    }
+
+    @Test
+    public void test_buffers_are_aligned_and_positions_checked() throws IOException {
+        try (DirectFileWriter writer = new DirectFileWriter(tempDir.resolve("aligned.txt"), 10, 1000, 2)) {
+            ByteBuffer buffer = writer.acquire();
+            Assertions.assertTrue(buffer.isDirect());
+            Assertions.assertEquals(0, buffer.capacity() % writer.getBlockSize());
+            Assertions.assertEquals(buffer, buffer.alignedSlice(writer.getBlockSize()));
+            buffer.put(new byte[10]);
+            Assertions.assertThrows(IllegalArgumentException.class, () -> writer.write(buffer, 1));
+            writer.write(writer.acquire().put(new byte[10]), 0);
+        }
+        Assertions.assertEquals(10, Files.size(tempDir.resolve("aligned.txt")));
+    }
+
+    @Test
+    public void test_force_on_close_sees_truncated_tail() throws IOException {
+        Path path = tempDir.resolve("forced.txt");
+        List<Long> forcedSizes = new ArrayList<>();
+        try (DirectFileWriter writer = new DirectFileWriter(path, 10, 1000, 2)) {
+            writer.setDurability(Durability.FORCE_AT_END);
+            writer.setMetrics(new Metrics() {
+                @Override
+                public void recordPhase(Phase phase, long startNanos, long bytes) {
+                    if (phase == Phase.FORCE)
+                        forcedSizes.add(size(path));
+                }
+            });
+            writer.write(writer.acquire().put(new byte[10]), 0);
+        }
+        Assertions.assertEquals(List.of(10L), forcedSizes);
+    }
+
+    private static long size(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
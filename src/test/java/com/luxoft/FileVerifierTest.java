@@ -0,0 +1,76 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+
+public class FileVerifierTest {
+    private static final int LEN = 20_000_003;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_verify_correct_file() {
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            String fileName = worker.generateAndWriteMappedByteBufferDirect();
+            VerificationResult result = worker.verify(fileName);
+            Assertions.assertTrue(result.isMatched(), result.toString());
+            Assertions.assertEquals(-1, result.getFirstMismatch());
+        }
+    }
+
+    @Test
+    public void test_repeated_verify_reuses_buffers() {
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            String fileName = worker.generateAndWriteMappedByteBufferDirect();
+            Assertions.assertTrue(worker.verify(fileName).isMatched());
+            long directMemory = directMemoryUsed();
+            for (int i = 0; i < 5; i++)
+                Assertions.assertTrue(worker.verify(fileName).isMatched());
+            Assertions.assertTrue(directMemoryUsed() - directMemory < FileVerifier.DEFAULT_CHUNK_SIZE,
+                    "direct memory grew by " + (directMemoryUsed() - directMemory));
+        }
+    }
+
+    @Test
+    public void test_verify_reports_first_mismatch() throws IOException {
+        String fileName;
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            fileName = worker.generateAndWriteMappedByteBufferDirect();
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(fileName, "rw")) {
+            for (long offset : new long[] {15_000_000, 9_000_001}) {
+                raf.seek(offset);
+                int value = raf.read();
+                raf.seek(offset);
+                raf.write(value ^ 1);
+            }
+        }
+        Assertions.assertEquals(9_000_001, FileVerifier.verify(Path.of(fileName), 0, LEN).getFirstMismatch());
+        Assertions.assertFalse(FileVerifier.verify(Path.of(fileName), 1, LEN).isMatched());
+    }
+
+    @Test
+    public void test_verify_reports_wrong_size() throws IOException {
+        String fileName;
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            fileName = worker.generateAndWriteMappedByteBufferDirect();
+        }
+        Assertions.assertEquals(LEN, FileVerifier.verify(Path.of(fileName), 0, LEN + 10).getFirstMismatch());
+        Assertions.assertEquals(LEN - 10, FileVerifier.verify(Path.of(fileName), 0, LEN - 10).getFirstMismatch());
+    }
+
+    private static long directMemoryUsed() {
+        return ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+                .filter(pool -> "direct".equals(pool.getName()))
+                .mapToLong(BufferPoolMXBean::getMemoryUsed)
+                .sum();
+    }
+}
@@ -0,0 +1,105 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.random.RandomGenerator;
+import java.util.random.RandomGeneratorFactory;
+
+public class GeneratorBackendTest {
+    private static final List<String> ALGORITHMS = List.of("L64X128MixRandom", "Xoshiro256PlusPlus", "SplittableRandom");
+    // crosses 256 blocks, i.e. the first parent node of split() and several leaps
+    private static final int LEN = 257 * RandomGeneratorBackend.BLOCK_SIZE + 13;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_lcg_backend_equals_random() {
+        byte[] expected = new byte[1003];
+        new Random(5).nextBytes(expected);
+        byte[] bytes = new byte[1003];
+        GeneratorBackend.of(GeneratorBackend.LCG, 5).atByte(0).nextBytes(bytes);
+        Assertions.assertArrayEquals(expected, bytes);
+    }
+
+    @Test
+    public void test_first_blocks_are_jumped_or_split_generators() {
+        RandomGenerator root = RandomGeneratorFactory.of("Xoshiro256PlusPlus").create(3);
+        RandomGenerator.JumpableGenerator jumped = ((RandomGenerator.JumpableGenerator) root).copy();
+        jumped.jump();
+        assertBlockStartsWith(GeneratorBackend.of("Xoshiro256PlusPlus", 3), 0, root);
+        assertBlockStartsWith(GeneratorBackend.of("Xoshiro256PlusPlus", 3), 1, jumped);
+
+        RandomGenerator.SplittableGenerator splittable = (RandomGenerator.SplittableGenerator)
+                RandomGeneratorFactory.of("L64X128MixRandom").create(3);
+        RandomGenerator first = splittable.split().split().split().split();
+        assertBlockStartsWith(GeneratorBackend.of("L64X128MixRandom", 3), 0, first);
+    }
+
+    @Test
+    public void test_any_offset_continues_the_sequence() {
+        for (String algorithm : ALGORITHMS) {
+            GeneratorBackend backend = GeneratorBackend.of(algorithm, 7);
+            byte[] expected = new byte[LEN];
+            backend.atByte(0).nextBytes(expected);
+
+            int[] offsets = {1, 7, 8, 65_535, 65_536, 64 * RandomGeneratorBackend.BLOCK_SIZE + 5,
+                    256 * RandomGeneratorBackend.BLOCK_SIZE - 3};
+            for (int offset : offsets) {
+                ByteGenerator generator = backend.atByte(offset);
+                byte[] bytes = new byte[LEN - offset];
+                for (int start = 0; start < bytes.length; start += 100_003) // odd steps keep leftover bytes
+                    generator.nextBytes(bytes, start, Math.min(100_003, bytes.length - start));
+                Assertions.assertArrayEquals(Arrays.copyOfRange(expected, offset, LEN), bytes, algorithm + " at " + offset);
+            }
+
+            ByteBuffer buffer = ByteBuffer.allocateDirect(LEN);
+            backend.atByte(0).nextBytes(buffer);
+            Assertions.assertEquals(LEN, buffer.position());
+            Assertions.assertEquals(ByteBuffer.wrap(expected), buffer.flip(), algorithm);
+        }
+    }
+
+    @Test
+    public void test_algorithms_without_jump_or_split_are_rejected() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GeneratorBackend.of("SecureRandom", 1));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> GeneratorBackend.of("NoSuchRandom", 1));
+    }
+
+    @Test
+    public void test_worker_writes_backend_sequence_and_metadata() throws IOException {
+        final int len = 10_000_003;
+        try (Worker worker = new Worker(9, len, tempDir.toString())) {
+            worker.setAlgorithm("Xoshiro256PlusPlus");
+            byte[] expected = new byte[len];
+            worker.getBackend().atByte(0).nextBytes(expected);
+
+            Assertions.assertArrayEquals(expected, worker.generateBytesLibParallel());
+            for (String fileName : List.of(worker.generateAndWriteRingPipeline(), worker.generateAndWriteDirectIO(),
+                    worker.generateAndWriteRandomAccessFileParallel(), worker.generateAndWriteMappedByteBufferDirect())) {
+                Assertions.assertArrayEquals(expected, worker.readBytesFromFile(fileName), fileName);
+                Assertions.assertTrue(worker.verify(fileName).isMatched(), fileName);
+                Assertions.assertEquals(List.of("algorithm Xoshiro256PlusPlus", "seed 9", "size " + len),
+                        Files.readAllLines(Path.of(fileName + ".meta")));
+            }
+        }
+    }
+
+    private static void assertBlockStartsWith(GeneratorBackend backend, long block, RandomGenerator generator) {
+        ByteBuffer bytes = ByteBuffer.allocate(4 * Long.BYTES);
+        backend.atByte(block * RandomGeneratorBackend.BLOCK_SIZE).nextBytes(bytes);
+        bytes.flip().order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < 4; i++)
+            Assertions.assertEquals(generator.nextLong(), bytes.getLong(), "block " + block + ", long " + i);
+    }
+}
@@ -0,0 +1,67 @@
+package com.luxoft;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Generation speed of every {@link GeneratorBackend} algorithm, one thread, one op fills a direct buffer of chunkSize.
+ * Bytes per second are reported as the secondary result "bytes".
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="GeneratorBenchmark"
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Thread)
+public class GeneratorBenchmark {
+
+    @Param({"Random", "L64X128MixRandom", "Xoshiro256PlusPlus", "SplittableRandom"})
+    public String algorithm;
+
+    @Param({"1048576"})
+    public int chunkSize;
+
+    private GeneratorBackend backend;
+    private ByteGenerator generator;
+    private ByteBuffer buffer;
+    private long offset;
+
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    @State(Scope.Thread)
+    public static class Counters {
+        public long bytes;
+    }
+
+    @Setup(Level.Trial)
+    public void createBackend() {
+        backend = GeneratorBackend.of(algorithm, 0);
+        generator = backend.atByte(0);
+        buffer = ByteBuffer.allocateDirect(chunkSize);
+    }
+
+    /**
+     * One continuous stream, like generateAndWriteMappedByteBufferDirect
+     */
+    @Benchmark
+    public ByteBuffer sequential(Counters counters) {
+        buffer.clear();
+        generator.nextBytes(buffer);
+        counters.bytes += chunkSize;
+        return buffer;
+    }
+
+    /**
+     * Every chunk seeks its own generator (jump/split for RandomGeneratorFactory algorithms), like parallel methods
+     */
+    @Benchmark
+    public ByteBuffer atChunk(Counters counters) {
+        buffer.clear();
+        backend.atByte(offset).nextBytes(buffer);
+        offset += chunkSize;
+        counters.bytes += chunkSize;
+        return buffer;
+    }
+}
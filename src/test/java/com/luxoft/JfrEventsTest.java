@@ -0,0 +1,69 @@
+package com.luxoft;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+public class JfrEventsTest {
+    private static final int LEN = 10_000_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_events_are_recorded_when_enabled() throws IOException {
+        Path dump = tempDir.resolve("worker.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("com.luxoft.Job");
+            recording.enable("com.luxoft.BatchGenerated");
+            recording.enable("com.luxoft.RegionMapped");
+            recording.enable("com.luxoft.RegionWritten");
+            recording.start();
+            try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+                worker.setWindowSize(4096 * 1000);
+                worker.generateAndWriteMappedByteBufferBatches();
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+
+        List<RecordedEvent> jobs = ofType(events, "com.luxoft.Job");
+        Assertions.assertEquals(1, jobs.size());
+        Assertions.assertEquals("generateAndWriteMappedByteBufferBatches", jobs.get(0).getString("operation"));
+        Assertions.assertEquals(LEN, jobs.get(0).getLong("size"));
+        Assertions.assertEquals(LEN, sumOfSizes(ofType(events, "com.luxoft.BatchGenerated")));
+        Assertions.assertEquals(LEN, sumOfSizes(ofType(events, "com.luxoft.RegionWritten")));
+        Assertions.assertEquals(3, ofType(events, "com.luxoft.RegionMapped").size());
+    }
+
+    @Test
+    public void test_events_are_disabled_by_default() throws IOException {
+        Path dump = tempDir.resolve("worker.jfr");
+        try (Recording recording = new Recording()) {
+            recording.start();
+            try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+                worker.generateAndWriteRingPipeline(1, 1);
+            }
+            recording.stop();
+            recording.dump(dump);
+        }
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        Assertions.assertTrue(events.stream().noneMatch(event -> event.getEventType().getName().startsWith("com.luxoft.")));
+    }
+
+    private static List<RecordedEvent> ofType(List<RecordedEvent> events, String name) {
+        return events.stream().filter(event -> event.getEventType().getName().equals(name)).toList();
+    }
+
+    private static long sumOfSizes(List<RecordedEvent> events) {
+        return events.stream().mapToLong(event -> event.getLong("size")).sum();
+    }
+}
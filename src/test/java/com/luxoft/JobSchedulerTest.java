@@ -0,0 +1,83 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class JobSchedulerTest {
+    private static final int CHUNK_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_many_files_are_written_within_memory_budget() throws IOException {
+        List<JobSpec> specs = IntStream.range(0, 200)
+                .mapToObj(i -> new JobSpec(i, (i * 7919L) % 300_000, tempDir.resolve("file-" + i + ".txt")))
+                .collect(Collectors.toList());
+        try (JobScheduler scheduler = new JobScheduler(2, 2, 4L * CHUNK_SIZE, CHUNK_SIZE)) {
+            scheduler.runAll(specs.stream());
+            Assertions.assertTrue(scheduler.getMaxInFlightBytes() <= scheduler.getMemoryBudget());
+            Assertions.assertTrue(scheduler.getMaxInFlightBytes() > 0);
+        }
+        for (JobSpec spec : specs)
+            Assertions.assertTrue(FileVerifier.verify(spec.getPath(), spec.getSeed(), spec.getSize()).isMatched(), spec.toString());
+    }
+
+    @Test
+    public void test_virtual_thread_mode_writes_small_files() throws IOException {
+        List<JobSpec> specs = IntStream.range(0, 500)
+                .mapToObj(i -> new JobSpec(i, i % 3 == 0 ? 0 : 4096 + i, tempDir.resolve("small-" + i + ".txt")))
+                .collect(Collectors.toList());
+        try (JobScheduler scheduler = new JobScheduler(2, 8, 16L * CHUNK_SIZE, CHUNK_SIZE, ThreadMode.VIRTUAL)) {
+            scheduler.runAll(specs.stream());
+        }
+        for (JobSpec spec : specs)
+            Assertions.assertTrue(FileVerifier.verify(spec.getPath(), spec.getSeed(), spec.getSize()).isMatched(), spec.toString());
+    }
+
+    @Test
+    public void test_virtual_threads_fall_back_to_platform_threads() throws InterruptedException {
+        Assertions.assertEquals(Runtime.version().feature() >= 21, VirtualThreads.isSupported());
+        String[] name = new String[1];
+        Thread thread = VirtualThreads.newThread(ThreadMode.VIRTUAL, "stage", () -> name[0] = Thread.currentThread().getName());
+        thread.start();
+        thread.join();
+        Assertions.assertEquals("stage", name[0]);
+    }
+
+    @Test
+    public void test_failed_job_is_reported() throws IOException {
+        Path directory = tempDir.resolve("directory.txt");
+        Files.createDirectory(directory);
+        try (JobScheduler scheduler = new JobScheduler(1, 1, CHUNK_SIZE, CHUNK_SIZE)) {
+            Assertions.assertThrows(IOException.class, () -> scheduler.runAll(
+                    List.of(new JobSpec(0, 10, tempDir.resolve("ok.txt")), new JobSpec(0, 10, directory)).stream()));
+        }
+    }
+
+    @Test
+    public void test_failed_chunk_does_not_close_the_file_under_other_chunks() {
+        Path full = Path.of("/dev/full"); // every write fails with "No space left on device"
+        Assumptions.assumeTrue(Files.isWritable(full));
+        try (JobScheduler scheduler = new JobScheduler(4, 4, 16L * CHUNK_SIZE, CHUNK_SIZE)) {
+            IOException failure = Assertions.assertThrows(IOException.class,
+                    () -> scheduler.runAll(List.of(new JobSpec(0, 16L * CHUNK_SIZE, full)).stream()));
+            Assertions.assertFalse(failure instanceof ClosedChannelException, failure.toString());
+        }
+    }
+
+    @Test
+    public void test_budget_must_hold_a_chunk() {
+        Assertions.assertThrows(IllegalArgumentException.class, () -> new JobScheduler(1, 1, CHUNK_SIZE - 1, CHUNK_SIZE));
+    }
+}
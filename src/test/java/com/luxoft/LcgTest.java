@@ -0,0 +1,78 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Random;
+
+public class LcgTest {
+
+    @Test
+    public void test_skip_equals_sequential_steps() {
+        long state = Lcg.initialState(42);
+        long expected = state;
+        for (int steps = 0; steps < 1000; steps++) {
+            Assertions.assertEquals(expected, Lcg.skip(state, steps));
+            expected = Lcg.nextState(expected);
+        }
+    }
+
+    @Test
+    public void test_next_bytes_at_any_offset() {
+        final int len = 10_000;
+        byte[] expected = new byte[len];
+        new Random(7).nextBytes(expected);
+
+        int[] offsets = {0, 1, 2, 3, 4, 5, 1023, 4096, 9_999};
+        for (int offset : offsets) {
+            for (int length : new int[] {0, 1, 3, 4, 7, len - offset}) {
+                length = Math.min(length, len - offset);
+                byte[] bytes = new byte[length + 2];
+                Lcg.nextBytes(7, offset, bytes, 1, length);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(expected, offset, offset + length),
+                        Arrays.copyOfRange(bytes, 1, length + 1), "offset = " + offset + ", length = " + length);
+            }
+        }
+    }
+
+    @Test
+    public void test_lcg_random_continues_stream_between_calls() {
+        final int len = 100_003;
+        byte[] expected = new byte[len];
+        new Random(0).nextBytes(expected);
+
+        LcgRandom generator = new LcgRandom(0);
+        byte[] bytes = new byte[len];
+        int offset = 0;
+        int step = 1;
+        while (offset < len) {
+            int length = Math.min(step, len - offset);
+            generator.nextBytes(bytes, offset, length);
+            offset += length;
+            step = step % 13 + 1;
+        }
+        Assertions.assertArrayEquals(expected, bytes);
+    }
+
+    @Test
+    public void test_lcg_random_fills_byte_buffer() {
+        final int len = 10_003;
+        byte[] expected = new byte[len];
+        new Random(0).nextBytes(expected);
+
+        LcgRandom generator = new LcgRandom(0);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(len).order(ByteOrder.BIG_ENDIAN);
+        buffer.limit(5);
+        generator.nextBytes(buffer);
+        buffer.limit(len);
+        generator.nextBytes(buffer);
+        Assertions.assertEquals(ByteOrder.BIG_ENDIAN, buffer.order());
+
+        byte[] bytes = new byte[len];
+        buffer.flip().get(bytes);
+        Assertions.assertArrayEquals(expected, bytes);
+    }
+}
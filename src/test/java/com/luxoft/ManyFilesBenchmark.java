@@ -0,0 +1,94 @@
+package com.luxoft;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Huge numbers of small files: a pool of platform threads (one task per file) against JobScheduler
+ * with platform or virtual I/O threads. VIRTUAL falls back to platform threads below JDK 21, build with -Pjdk21.
+ * Run: mvn -Pbenchmark,jdk21 test-compile exec:exec -Dbenchmark.args="ManyFilesBenchmark"
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class ManyFilesBenchmark {
+
+    @Param({"100000"})
+    public int files;
+
+    @Param({"65536"})
+    public int fileSize;
+
+    @Param({"4"})
+    public int threads;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    public ThreadMode threadMode;
+
+    private Path catalog;
+
+    @Setup(Level.Iteration)
+    public void createCatalog() throws IOException {
+        catalog = Files.createTempDirectory("many-files-benchmark");
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCatalog() throws IOException {
+        try (Stream<Path> paths = Files.walk(catalog)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    /**
+     * Baseline: fixed pool of platform threads, every task generates and writes a whole file (threadMode is ignored)
+     */
+    @Benchmark
+    public void fixedPoolPerFile() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = IntStream.range(0, files)
+                    .mapToObj(i -> pool.submit(() -> {
+                        byte[] bytes = new byte[fileSize];
+                        new LcgRandom(i).nextBytes(bytes);
+                        Files.write(catalog.resolve("file-" + i + ".txt"), bytes);
+                        return null;
+                    }))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures)
+                future.get();
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Benchmark
+    public void jobScheduler() throws IOException {
+        try (JobScheduler scheduler = new JobScheduler(threads, 4 * threads, 64L * 1024 * 1024,
+                JobScheduler.DEFAULT_CHUNK_SIZE, threadMode)) {
+            scheduler.runAll(IntStream.range(0, files)
+                    .mapToObj(i -> new JobSpec(i, fileSize, catalog.resolve("file-" + i + ".txt"))));
+        }
+    }
+}
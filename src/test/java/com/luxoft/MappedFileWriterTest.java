@@ -0,0 +1,86 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class MappedFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_periodic_durability_forces_inside_the_window() throws IOException {
+        final int len = 1_000_000;
+        byte[] bytes = new byte[len];
+        new Random(0).nextBytes(bytes);
+        Path path = tempDir.resolve("periodic.txt");
+        List<Long> forced = new ArrayList<>();
+
+        try (MappedFileWriter writer = new MappedFileWriter(path.toString(), 0, len, len, Durability.PERIODIC, 100_000)) {
+            writer.setMetrics(new Metrics() {
+                @Override
+                public void recordPhase(Phase phase, long startNanos, long bytes) {
+                    if (phase == Phase.FORCE)
+                        forced.add(bytes);
+                }
+            });
+            MappedByteBuffer window = writer.nextWindow();
+            for (int position = 0; position < len; position += 30_000) {
+                int length = Math.min(30_000, len - position);
+                window.put(position, bytes, position, length);
+                writer.markWritten(position + length);
+            }
+        }
+        // every 4th slice of 30,000 bytes has at least 100,000 not forced bytes, the rest is forced on release,
+        // close() forces the file itself
+        List<Long> expected = new ArrayList<>(Collections.nCopies(8, 120_000L));
+        expected.add(40_000L);
+        expected.add(0L);
+        Assertions.assertEquals(expected, forced);
+        Assertions.assertArrayEquals(bytes, Files.readAllBytes(path));
+    }
+
+    @Test
+    public void test_windows_beyond_2_gb_of_a_sparse_file() throws IOException {
+        final int len = 3 * 1024 + 7;
+        final long start = Integer.MAX_VALUE - 1000L; // windows of 1 KB start below and above 2^31
+        byte[] bytes = new byte[len];
+        new Random(1).nextBytes(bytes);
+        Path path = tempDir.resolve("sparse.txt");
+        List<Long> windowStarts = new ArrayList<>();
+
+        try (MappedFileWriter writer = new MappedFileWriter(path.toString(), start, len, 1024, Durability.NONE, 0)) {
+            int offset = 0;
+            while (writer.hasNextWindow()) {
+                MappedByteBuffer window = writer.nextWindow();
+                windowStarts.add(writer.getWindowStart());
+                window.put(0, bytes, offset, window.limit());
+                offset += window.limit();
+                writer.markWritten(window.limit());
+            }
+        }
+        Assertions.assertEquals(List.of(start, start + 1024, start + 2048, start + 3072), windowStarts);
+        Assertions.assertTrue(windowStarts.get(0) < Integer.MAX_VALUE && windowStarts.get(1) > Integer.MAX_VALUE);
+
+        ByteBuffer actual = ByteBuffer.allocate(len);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Assertions.assertEquals(start + len, channel.size());
+            while (actual.hasRemaining())
+                channel.read(actual, start + actual.position());
+        }
+        Assertions.assertArrayEquals(bytes, actual.array());
+    }
+}
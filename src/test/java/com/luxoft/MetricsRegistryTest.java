@@ -0,0 +1,78 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Path;
+import java.util.Map;
+
+public class MetricsRegistryTest {
+    private static final int LEN = 10_000_000;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_phases_of_mapped_byte_buffer_batches() {
+        MetricsRegistry registry = new MetricsRegistry();
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.setMetrics(registry);
+            worker.setWindowSize(4096 * 1000);
+            worker.setDurability(Durability.FORCE_AT_END);
+            worker.generateAndWriteMappedByteBufferBatches();
+        }
+        Assertions.assertEquals(LEN, registry.getPhaseBytes(Phase.GENERATE));
+        Assertions.assertEquals(LEN, registry.getPhaseBytes(Phase.COPY));
+        Assertions.assertEquals(LEN, registry.getPhaseBytes(Phase.MAP));
+        Assertions.assertEquals(LEN, registry.getPhaseBytes(Phase.UNMAP));
+        Assertions.assertTrue(registry.getPhaseNanos(Phase.FORCE) > 0);
+        Assertions.assertEquals((LEN + 4095) / 4096, registry.getBatchLatency().getCount());
+        Assertions.assertTrue(registry.getBatchLatency().getPercentile(0.99) > 0);
+    }
+
+    @Test
+    public void test_pipeline_threads_and_queue_are_measured() {
+        MetricsRegistry registry = new MetricsRegistry();
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.setMetrics(registry);
+            worker.generateAndWriteRingPipeline(2, 1);
+        }
+        Map<String, Object> snapshot = registry.snapshot();
+        Map<?, ?> threads = (Map<?, ?>) snapshot.get("threads");
+        Assertions.assertTrue(threads.containsKey("ring-generator-0"));
+        Assertions.assertTrue(threads.containsKey("ring-writer-0"));
+        Assertions.assertEquals(LEN, registry.getPhaseBytes(Phase.WRITE));
+        Assertions.assertTrue(((Map<?, ?>) snapshot.get("jobs")).containsKey("generateAndWriteRingPipeline"));
+    }
+
+    @Test
+    public void test_json_and_jmx_export() throws JMException {
+        MetricsRegistry registry = new MetricsRegistry();
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.setMetrics(registry);
+            worker.generateBytesLib();
+        }
+        String json = JsonExporter.toJson(registry);
+        Assertions.assertTrue(json.startsWith("{"));
+        Assertions.assertTrue(json.contains("\"GENERATE\": {"));
+        Assertions.assertTrue(json.contains("\"bytes\": " + LEN));
+
+        ObjectName name = JmxExporter.register(registry, JmxExporter.DEFAULT_NAME + ",name=test");
+        try {
+            Object bytes = ManagementFactory.getPlatformMBeanServer().getAttribute(name, "phases.GENERATE.bytes");
+            Assertions.assertEquals((long) LEN, bytes);
+        } finally {
+            JmxExporter.unregister(name);
+        }
+    }
+
+    @Test
+    public void test_noop_metrics_measure_nothing() {
+        Assertions.assertFalse(Metrics.NOOP.isEnabled());
+        Assertions.assertEquals(0, Metrics.NOOP.time());
+    }
+}
@@ -0,0 +1,48 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+public class ProcessCoordinatorTest {
+    private static final int LEN = 10_000_003;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_worker_processes_write_the_sequence() throws IOException {
+        Path path = tempDir.resolve("shared.txt");
+        ProcessCoordinator coordinator = new ProcessCoordinator(5, LEN, 3);
+        coordinator.setJvmOptions(List.of("-Xmx64m"));
+
+        List<PartitionResult> results = coordinator.run(path);
+
+        Assertions.assertEquals(3, results.size());
+        Assertions.assertTrue(FileVerifier.verify(path, 5, LEN).isMatched());
+        byte[] bytes = Files.readAllBytes(path);
+        long start = 0;
+        for (PartitionResult result : results) {
+            Assertions.assertEquals(start, result.getStart());
+            CRC32C crc = new CRC32C();
+            crc.update(bytes, (int) result.getStart(), (int) result.getSize());
+            Assertions.assertEquals(crc.getValue(), result.getChecksum());
+            start += result.getSize();
+        }
+        Assertions.assertEquals(LEN, start);
+    }
+
+    @Test
+    public void test_failed_worker_is_reported() {
+        ProcessCoordinator coordinator = new ProcessCoordinator(5, LEN, 2);
+        coordinator.setJvmOptions(List.of("-XX:NoSuchOption"));
+
+        Assertions.assertThrows(IOException.class, () -> coordinator.run(tempDir.resolve("failed.txt")));
+    }
+}
@@ -0,0 +1,109 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+public class RandomnessAnalyzerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_random_bytes_are_acceptable() {
+        byte[] bytes = new byte[10_000_000];
+        new Random(0).nextBytes(bytes);
+        QualityReport report = RandomnessAnalyzer.analyze(bytes, ForkJoinPool.commonPool());
+        System.out.println(report);
+
+        Assertions.assertEquals(bytes.length, report.getCount());
+        Assertions.assertTrue(report.isAcceptable());
+        Assertions.assertTrue(report.getEntropy() > 7.999);
+        Assertions.assertTrue(Math.abs(report.getSerialCorrelation()) < 0.01);
+        Assertions.assertEquals(report.getExpectedRuns(), report.getRuns(), report.getExpectedRuns() * 0.01);
+    }
+
+    @Test
+    public void test_constant_bytes_are_not_acceptable() {
+        byte[] bytes = new byte[1000];
+        QualityReport report = RandomnessAnalyzer.analyze(bytes, ForkJoinPool.commonPool());
+
+        Assertions.assertFalse(report.isAcceptable());
+        Assertions.assertEquals(255, report.getMissingValues().size());
+        Assertions.assertEquals(1, report.getRuns());
+        Assertions.assertEquals(1000, report.getLongestRun());
+        Assertions.assertEquals(0, report.getEntropy(), 1e-9);
+    }
+
+    /**
+     * Chunks in any order must give the same report as one chunk, runs and pairs are joined across borders
+     */
+    @Test
+    public void test_chunks_in_any_order_give_same_report() {
+        Random random = new Random(1);
+        byte[] bytes = new byte[100_000];
+        for (int i = 0; i < bytes.length; ) {
+            byte value = (byte) random.nextInt(4);
+            for (int run = 1 + random.nextInt(20); run > 0 && i < bytes.length; run--)
+                bytes[i++] = value;
+        }
+        RandomnessAnalyzer whole = new RandomnessAnalyzer();
+        whole.accept(0, bytes, 0, bytes.length);
+        QualityReport expected = whole.report();
+
+        List<int[]> chunks = new ArrayList<>();
+        for (int start = 0; start < bytes.length; start += 7) {
+            chunks.add(new int[] {start, Math.min(7, bytes.length - start)});
+        }
+        Collections.shuffle(chunks, random);
+        RandomnessAnalyzer chunked = new RandomnessAnalyzer();
+        chunks.parallelStream().forEach(chunk -> chunked.accept(chunk[0], bytes, chunk[0], chunk[1]));
+        QualityReport actual = chunked.report();
+
+        Assertions.assertArrayEquals(expected.getHistogram(), actual.getHistogram());
+        Assertions.assertEquals(expected.getRuns(), actual.getRuns());
+        Assertions.assertEquals(expected.getLongestRun(), actual.getLongestRun());
+        Assertions.assertEquals(expected.getSerialCorrelation(), actual.getSerialCorrelation(), 1e-12);
+        Assertions.assertEquals(1, chunked.getRangeCount()); // all chunks merged into one range
+    }
+
+    @Test
+    public void test_state_is_bounded_by_chunks_out_of_order() {
+        byte[] bytes = new byte[64 * 1000];
+        new Random(2).nextBytes(bytes);
+        RandomnessAnalyzer analyzer = new RandomnessAnalyzer();
+        for (int start = 0; start < bytes.length; start += 2000) { // pairs of chunks swapped
+            analyzer.accept(start + 1000, bytes, start + 1000, 1000);
+            Assertions.assertEquals(start == 0 ? 1 : 2, analyzer.getRangeCount()); // frontier + the early chunk
+            analyzer.accept(start, bytes, start, 1000);
+            Assertions.assertEquals(1, analyzer.getRangeCount());
+        }
+        RandomnessAnalyzer whole = new RandomnessAnalyzer();
+        whole.accept(0, bytes, 0, bytes.length);
+        Assertions.assertEquals(whole.report().getRuns(), analyzer.report().getRuns());
+        Assertions.assertEquals(whole.report().getLongestRun(), analyzer.report().getLongestRun());
+        Assertions.assertEquals(whole.report().getSerialCorrelation(), analyzer.report().getSerialCorrelation(), 1e-12);
+    }
+
+    @Test
+    public void test_analyzer_as_ring_pipeline_stage() {
+        final int len = 10_000_000;
+        RandomnessAnalyzer analyzer = new RandomnessAnalyzer();
+        try (Worker worker = new Worker(0, len, tempDir.toString())) {
+            worker.setAnalyzer(analyzer);
+            String fileName = worker.generateAndWriteRingPipeline(2, 2);
+            QualityReport report = analyzer.report();
+            Assertions.assertEquals(len, report.getCount());
+            Assertions.assertTrue(report.isAcceptable());
+            Assertions.assertEquals(report.getRuns(), worker.analyze(fileName).getRuns());
+            Assertions.assertEquals(1, analyzer.getRangeCount());
+        }
+    }
+}
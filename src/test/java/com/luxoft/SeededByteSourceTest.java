@@ -0,0 +1,71 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class SeededByteSourceTest {
+    private static final int LEN = 3_000_017;
+    private static final int BLOCK = 64 * 1024;
+
+    @Test
+    public void test_reads_at_any_offset_match_random() {
+        byte[] expected = new byte[LEN];
+        new Random(4).nextBytes(expected);
+        SeededByteSource source = new SeededByteSource(GeneratorBackend.lcg(4), LEN, BLOCK, 8);
+        Random offsets = new Random(1);
+        for (int i = 0; i < 200; i++) {
+            int offset = offsets.nextInt(LEN);
+            ByteBuffer dst = ByteBuffer.allocate(offsets.nextInt(3 * BLOCK));
+            int read = source.read(offset, dst);
+            Assertions.assertEquals(Math.min(dst.capacity(), LEN - offset), read);
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, offset, offset + read),
+                    Arrays.copyOf(dst.array(), read), "offset " + offset);
+        }
+        Assertions.assertEquals(-1, source.read(LEN, ByteBuffer.allocate(10)));
+        Assertions.assertTrue(source.getCachedBlocks() <= 8);
+    }
+
+    @Test
+    public void test_clock_keeps_referenced_blocks() {
+        SeededByteSource source = new SeededByteSource(GeneratorBackend.lcg(4), LEN, BLOCK, 4);
+        for (int block = 0; block < 4; block++)
+            source.read((long) block * BLOCK, ByteBuffer.allocate(1));
+        source.read(0, ByteBuffer.allocate(1)); // block 0 gets its second chance
+        source.read(4L * BLOCK, ByteBuffer.allocate(1)); // evicts block 1
+        Assertions.assertEquals(1, source.getHits());
+        Assertions.assertEquals(5, source.getMisses());
+        Assertions.assertEquals(1, source.getEvictions());
+
+        source.read(10, ByteBuffer.allocate(1));
+        Assertions.assertEquals(2, source.getHits());
+        source.read(BLOCK + 10, ByteBuffer.allocate(1));
+        Assertions.assertEquals(6, source.getMisses());
+        Assertions.assertEquals(4, source.getCachedBlocks());
+    }
+
+    @Test
+    public void test_concurrent_reads_and_worker_reads() {
+        byte[] expected = new byte[LEN];
+        new Random(0).nextBytes(expected);
+        SeededByteSource source = new SeededByteSource(GeneratorBackend.lcg(0), LEN, BLOCK, 16);
+        IntStream.range(0, 2000).parallel().forEach(i -> {
+            int offset = (int) ((i * 7919L * BLOCK / 3) % LEN);
+            ByteBuffer dst = ByteBuffer.allocate(5000);
+            int read = source.read(offset, dst);
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, offset, offset + read), Arrays.copyOf(dst.array(), read));
+        });
+        Assertions.assertTrue(source.getHits() + source.getMisses() >= 2000);
+        Assertions.assertTrue(source.getCachedBlocks() <= 16);
+
+        try (Worker worker = new Worker(0, LEN, "results")) {
+            Assertions.assertArrayEquals(expected, worker.readBytesFromSource(0, LEN));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, LEN - 5, LEN), worker.readBytesFromSource(LEN - 5, 100));
+            Assertions.assertTrue(worker.getByteSource().getMisses() > 0);
+        }
+    }
+}
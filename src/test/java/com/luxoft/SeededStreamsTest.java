@@ -0,0 +1,98 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+public class SeededStreamsTest {
+    private static final int LEN = 1_000_003;
+
+    @Test
+    public void test_input_stream_reads_skips_and_transfers() throws IOException {
+        byte[] expected = expected(7);
+        try (SeededInputStream in = new SeededInputStream(7, LEN)) {
+            Assertions.assertEquals(expected[0] & 0xFF, in.read());
+            byte[] bytes = new byte[1001];
+            Assertions.assertEquals(1001, in.read(bytes, 0, bytes.length));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, 1, 1002), bytes);
+            Assertions.assertEquals(100_001, in.skip(100_001));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, 101_003, 101_010), in.readNBytes(7));
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            Assertions.assertEquals(LEN - 101_010, in.transferTo(out));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, 101_010, LEN), out.toByteArray());
+            Assertions.assertEquals(-1, in.read());
+            Assertions.assertEquals(0, in.skip(10));
+        }
+    }
+
+    @Test
+    public void test_input_stream_from_offset() throws IOException {
+        byte[] expected = expected(7);
+        try (SeededInputStream in = new SeededInputStream(7, 123_457, LEN)) {
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, 123_457, LEN), in.readAllBytes());
+        }
+    }
+
+    @Test
+    public void test_channel_reads_into_direct_buffer_and_seeks() throws IOException {
+        byte[] expected = expected(7);
+        try (SeededChannel channel = new SeededChannel(7, LEN)) {
+            channel.position(999_999);
+            ByteBuffer buffer = ByteBuffer.allocateDirect(10);
+            Assertions.assertEquals(4, channel.read(buffer));
+            Assertions.assertEquals(-1, channel.read(buffer));
+            buffer.flip();
+            for (int i = 999_999; i < LEN; i++)
+                Assertions.assertEquals(expected[i], buffer.get());
+
+            channel.position(0);
+            Assertions.assertArrayEquals(expected, Channels.newInputStream(channel).readAllBytes());
+        }
+    }
+
+    @Test
+    public void test_streams_of_a_non_lcg_backend() throws IOException {
+        GeneratorBackend backend = GeneratorBackend.of("Xoshiro256PlusPlus", 7);
+        byte[] expected = new byte[LEN];
+        backend.atByte(0).nextBytes(expected);
+        try (SeededInputStream in = new SeededInputStream(backend, 123_457, LEN)) {
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, 123_457, 123_464), in.readNBytes(7));
+            Assertions.assertEquals(500_000, in.skip(500_000));
+            Assertions.assertArrayEquals(Arrays.copyOfRange(expected, 623_464, LEN), in.readAllBytes());
+        }
+        try (SeededChannel channel = new SeededChannel(backend, 999_999, LEN)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(10);
+            Assertions.assertEquals(4, channel.read(buffer));
+            buffer.flip();
+            for (int i = 999_999; i < LEN; i++)
+                Assertions.assertEquals(expected[i], buffer.get());
+
+            channel.position(0);
+            Assertions.assertArrayEquals(expected, Channels.newInputStream(channel).readAllBytes());
+        }
+    }
+
+    @Test
+    public void test_parallel_chunk_stream_keeps_order() {
+        byte[] expected = expected(7);
+        ByteBuffer result = ByteBuffer.allocate(LEN);
+        ChunkSpliterator.stream(7, LEN, 4099, true).forEachOrdered(result::put);
+        Assertions.assertArrayEquals(expected, result.array());
+        Assertions.assertEquals((LEN + 4098) / 4099,
+                ChunkSpliterator.stream(7, LEN, 4099, true).collect(Collectors.counting()));
+    }
+
+    private static byte[] expected(long seed) {
+        byte[] bytes = new byte[LEN];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
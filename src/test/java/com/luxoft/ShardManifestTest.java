@@ -0,0 +1,64 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32C;
+
+public class ShardManifestTest {
+    private static final int LEN = 10_000_003;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_concatenated_shards_equal_random_sequence() throws IOException {
+        List<String> directories = List.of(tempDir.resolve("nvme0").toString(), tempDir.resolve("nvme1").toString());
+        String manifestName;
+        try (Worker worker = new Worker(42, LEN, tempDir.toString())) {
+            manifestName = worker.generateAndWriteSharded(directories, 3);
+        }
+        ShardManifest manifest = ShardManifest.read(Path.of(manifestName));
+        Assertions.assertEquals(GeneratorBackend.LCG, manifest.getAlgorithm());
+        Assertions.assertEquals(42, manifest.getSeed());
+        Assertions.assertEquals(LEN, manifest.getSize());
+        Assertions.assertEquals(3, manifest.getShards().size());
+
+        ByteArrayOutputStream concatenated = new ByteArrayOutputStream(LEN);
+        long offset = 0;
+        for (ShardManifest.Shard shard : manifest.getShards()) {
+            Assertions.assertEquals(offset, shard.getOffset());
+            Assertions.assertTrue(shard.getPath().startsWith(directories.get(shard.getIndex() % 2)));
+            byte[] bytes = Files.readAllBytes(Path.of(shard.getPath()));
+            Assertions.assertEquals(shard.getSize(), bytes.length);
+            CRC32C crc = new CRC32C();
+            crc.update(bytes);
+            Assertions.assertEquals(crc.getValue(), shard.getChecksum());
+            concatenated.write(bytes);
+            offset += bytes.length;
+        }
+
+        byte[] expected = new byte[LEN];
+        new Random(42).nextBytes(expected);
+        Assertions.assertArrayEquals(expected, concatenated.toByteArray());
+    }
+
+    @Test
+    public void test_manifest_round_trip() throws IOException {
+        ShardManifest manifest = new ShardManifest(7, 30, List.of(
+                new ShardManifest.Shard(0, 0, 15, 0xCAFEL, "/data/a b/0.txt"),
+                new ShardManifest.Shard(1, 15, 15, 0xFFFFFFFFL, "/data/c/1.txt")));
+        Path path = tempDir.resolve("test.manifest");
+        manifest.write(path);
+
+        ShardManifest read = ShardManifest.read(path);
+        Assertions.assertEquals(manifest.toString(), read.toString());
+    }
+}
@@ -0,0 +1,117 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+
+public class SinkTest {
+    private static final int LEN = 10_000_003;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void test_generate_to_memory_sink() {
+        MemorySink sink = Sink.memory();
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.generateToSink(sink);
+        }
+        Assertions.assertArrayEquals(expected(), sink.toByteArray());
+    }
+
+    @Test
+    public void test_generate_to_tcp_sink_of_loopback_server() throws IOException {
+        try (ServerSocketChannel server = ServerSocketChannel.open()) {
+            server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+            CompletableFuture<byte[]> received = CompletableFuture.supplyAsync(() -> readAll(server));
+            int port = ((InetSocketAddress) server.getLocalAddress()).getPort();
+
+            try (Worker worker = new Worker(0, LEN, tempDir.toString()); Sink sink = Sink.tcp("localhost", port)) {
+                worker.generateToSink(sink);
+            }
+            Assertions.assertArrayEquals(expected(), received.join());
+        }
+    }
+
+    @Test
+    public void test_transfer_file_to_unix_socket_sink() throws IOException {
+        Path socket = tempDir.resolve("worker.sock");
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socket));
+            CompletableFuture<byte[]> received = CompletableFuture.supplyAsync(() -> readAll(server));
+
+            try (Worker worker = new Worker(0, LEN, tempDir.toString()); Sink sink = Sink.unixSocket(socket)) {
+                String fileName = worker.generateAndWriteRingPipeline();
+                worker.transferFileToSink(fileName, sink);
+            }
+            Assertions.assertArrayEquals(expected(), received.join());
+        }
+    }
+
+    @Test
+    public void test_generate_to_file_sink() throws IOException {
+        Path path = tempDir.resolve("sink.txt");
+        try (Worker worker = new Worker(0, LEN, tempDir.toString()); Sink sink = Sink.file(path)) {
+            worker.generateToSink(sink);
+        }
+        Assertions.assertArrayEquals(expected(), Files.readAllBytes(path));
+    }
+
+    @Test
+    public void test_stdout_sink_carries_only_the_sequence() {
+        PrintStream stdout = System.out;
+        ByteArrayOutputStream captured = new ByteArrayOutputStream(LEN);
+        System.setOut(new PrintStream(captured));
+        try (Worker worker = new Worker(0, LEN, tempDir.toString())) {
+            worker.generateToSink(Sink.stdout());
+        } finally {
+            System.setOut(stdout);
+        }
+        Assertions.assertArrayEquals(expected(), captured.toByteArray());
+    }
+
+    @Test
+    public void test_file_names_of_the_same_second_do_not_collide() {
+        try (Worker worker = new Worker(0, 1000, tempDir.toString())) {
+            String first = worker.generateAndWriteRingPipeline();
+            String second = worker.generateAndWriteRingPipeline();
+            Assertions.assertNotEquals(first, second);
+            Assertions.assertArrayEquals(worker.readBytesFromFile(first), worker.readBytesFromFile(second));
+        }
+    }
+
+    private static byte[] expected() {
+        byte[] bytes = new byte[LEN];
+        new Random(0).nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] readAll(ServerSocketChannel server) {
+        try (SocketChannel client = server.accept()) {
+            ByteArrayOutputStream result = new ByteArrayOutputStream(LEN);
+            ByteBuffer buffer = ByteBuffer.allocate(64 * 1024);
+            while (client.read(buffer) >= 0) {
+                result.write(buffer.array(), 0, buffer.position());
+                buffer.clear();
+            }
+            return result.toByteArray();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
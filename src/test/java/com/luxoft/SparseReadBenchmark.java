@@ -0,0 +1,88 @@
+package com.luxoft;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sparse random reads of readSize bytes: pread of a generated file against SeededByteSource, which computes
+ * the bytes (and caches their blocks) without the file. The file read is served by the page cache after warmup,
+ * so on a cold cache or a larger file the difference is bigger.
+ * Run: mvn -Pbenchmark test-compile exec:exec -Dbenchmark.args="SparseReadBenchmark"
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class SparseReadBenchmark {
+
+    @Param({"100000000"})
+    public long fileSize;
+
+    @Param({"4096"})
+    public int readSize;
+
+    @Param({"65536", "1048576"})
+    public int blockSize;
+
+    private Path catalog;
+    private FileChannel channel;
+    private SeededByteSource source;
+
+    @State(Scope.Thread)
+    public static class Reader {
+        final SplittableRandom offsets = new SplittableRandom(1);
+        ByteBuffer buffer;
+    }
+
+    @Setup(Level.Trial)
+    public void generateFile() throws IOException {
+        catalog = Files.createTempDirectory("sparse-read-benchmark");
+        String fileName;
+        try (Worker worker = new Worker(0, fileSize, catalog.toString())) {
+            fileName = worker.generateAndWriteRingPipeline();
+        }
+        channel = FileChannel.open(Path.of(fileName), StandardOpenOption.READ);
+        source = new SeededByteSource(GeneratorBackend.lcg(0), fileSize, blockSize, SeededByteSource.DEFAULT_CACHE_BLOCKS);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        System.out.println(source);
+        channel.close();
+        try (var paths = Files.list(catalog)) {
+            for (Path path : (Iterable<Path>) paths::iterator)
+                Files.delete(path);
+        }
+        Files.delete(catalog);
+    }
+
+    @Benchmark
+    public ByteBuffer fileChannelRead(Reader reader) throws IOException {
+        ByteBuffer buffer = buffer(reader);
+        channel.read(buffer, reader.offsets.nextLong(fileSize - readSize));
+        return buffer;
+    }
+
+    @Benchmark
+    public ByteBuffer seededByteSourceRead(Reader reader) {
+        ByteBuffer buffer = buffer(reader);
+        source.read(reader.offsets.nextLong(fileSize - readSize), buffer);
+        return buffer;
+    }
+
+    private ByteBuffer buffer(Reader reader) {
+        if (reader.buffer == null)
+            reader.buffer = ByteBuffer.allocateDirect(readSize);
+        return reader.buffer.clear();
+    }
+}
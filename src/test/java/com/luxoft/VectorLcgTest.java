@@ -0,0 +1,37 @@
+package com.luxoft;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+public class VectorLcgTest {
+    private static final int LEN = 1_000_003;
+
+    @Test
+    public void test_vector_lanes_match_random() {
+        Assertions.assertTrue(VectorLcg.isAvailable());
+        Assertions.assertTrue(VectorLcg.lanes() >= 1);
+        byte[] expected = new byte[LEN];
+        new Random(11).nextBytes(expected);
+
+        byte[] bytes = new byte[LEN];
+        VectorLcg.nextBytes(11, 0, bytes, 0, LEN);
+        Assertions.assertArrayEquals(expected, bytes);
+    }
+
+    @Test
+    public void test_vector_lanes_at_unaligned_offsets() {
+        byte[] expected = new byte[LEN];
+        new Random(11).nextBytes(expected);
+        for (int start : new int[]{1, 2, 3, 4, 77, 4097}) {
+            for (int length : new int[]{0, 1, 5, 31, 32, 33, 1000}) {
+                byte[] bytes = new byte[length + 2];
+                VectorLcg.nextBytes(11, start, bytes, 1, length);
+                Assertions.assertArrayEquals(Arrays.copyOfRange(expected, start, start + length),
+                        Arrays.copyOfRange(bytes, 1, length + 1), "start " + start + ", length " + length);
+            }
+        }
+    }
+}
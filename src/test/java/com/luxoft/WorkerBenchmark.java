@@ -0,0 +1,232 @@
+package com.luxoft;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * JMH benchmarks of all generate* and write* methods of Worker.
+ * Every iteration writes into a fresh temp directory, which is deleted after the iteration.
+ * Run: mvn -Pbenchmark test-compile exec:exec [-Dbenchmark.args="WorkerBenchmark.write -p fileSize=1000000"]
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 4)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g", "--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class WorkerBenchmark {
+    private static final int SCHEDULER_FILES = 1000;
+    private static final long SCHEDULER_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    @Param({"100000000"})
+    public long fileSize;
+
+    @Param({"4096", "65536"})
+    public int batchSize;
+
+    @Param({"1", "4"})
+    public int threads;
+
+    private byte[] bytes;
+    private Path catalog;
+    private Worker worker;
+
+    @Setup(Level.Trial)
+    public void generateInput() {
+        try (Worker inputWorker = newWorker(Path.of(System.getProperty("java.io.tmpdir")))) {
+            bytes = inputWorker.generateBytesLib();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void createCatalog() throws IOException {
+        catalog = Files.createTempDirectory("worker-benchmark");
+        worker = newWorker(catalog);
+    }
+
+    @TearDown(Level.Iteration)
+    public void deleteCatalog() throws IOException {
+        worker.close();
+        try (Stream<Path> paths = Files.walk(catalog)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+    }
+
+    private Worker newWorker(Path dir) {
+        Worker newWorker = new Worker(0, fileSize, dir.toString());
+        newWorker.setBatchSize(batchSize);
+        newWorker.setThreads(threads);
+        return newWorker;
+    }
+
+    // Generating
+    @Benchmark
+    public byte[] generateBytesLib() {
+        return worker.generateBytesLib();
+    }
+
+    @Benchmark
+    public byte[] generateBytesLibVector() {
+        return worker.generateBytesLibVector();
+    }
+
+    @Benchmark
+    public byte[] generateBytesLibParallel() {
+        return worker.generateBytesLibParallel();
+    }
+
+    @Benchmark
+    public byte[] generateBytes() {
+        return worker.generateBytes();
+    }
+
+    @Benchmark
+    public byte[] generateBytesParallel() {
+        return worker.generateBytesParallel();
+    }
+
+    @Benchmark
+    public byte[] generateBytesParallel2() {
+        return worker.generateBytesParallel2();
+    }
+
+    @Benchmark
+    public byte[] generateBytesParallel3() {
+        return worker.generateBytesParallel3();
+    }
+
+    @Benchmark
+    public Byte[] generateBytesStreamParallel() {
+        return worker.generateBytesStreamParallel();
+    }
+
+    @Benchmark
+    public byte[] generateBytesChunkStreamParallel() {
+        return worker.generateBytesChunkStreamParallel();
+    }
+
+    @Benchmark
+    public long seededInputStreamTransferTo() throws IOException {
+        try (SeededInputStream in = new SeededInputStream(0, fileSize)) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        }
+    }
+
+    // Writing
+    @Benchmark
+    public String writeFileOutputStream() {
+        return worker.writeFileOutputStream(bytes);
+    }
+
+    @Benchmark
+    public String writeRandomAccessFile() {
+        return worker.writeRandomAccessFile(bytes);
+    }
+
+    @Benchmark
+    public String writeRandomAccessFileParallel() {
+        return worker.writeRandomAccessFileParallel(bytes);
+    }
+
+    @Benchmark
+    public String writeMappedByteBuffer() {
+        return worker.writeMappedByteBuffer(bytes);
+    }
+
+    @Benchmark
+    public String writeMappedByteBufferParallel() {
+        return worker.writeMappedByteBufferParallel(bytes);
+    }
+
+    @Benchmark
+    public String writeDirectIO() {
+        return worker.writeDirectIO(bytes);
+    }
+
+    // Generating and writing
+    @Benchmark
+    public String generateAndWriteMappedByteBuffer() {
+        return worker.generateAndWriteMappedByteBuffer();
+    }
+
+    @Benchmark
+    public String generateAndWriteMappedByteBufferBatches() {
+        return worker.generateAndWriteMappedByteBufferBatches();
+    }
+
+    @Benchmark
+    public String generateAndWriteMappedByteBufferDirect() {
+        return worker.generateAndWriteMappedByteBufferDirect();
+    }
+
+    @Benchmark
+    public String generateAndWriteMappedByteBufferBatchesQueue() {
+        return worker.generateAndWriteMappedByteBufferBatchesQueue();
+    }
+
+    @Benchmark
+    public String generateAndWriteRingPipeline() {
+        return worker.generateAndWriteRingPipeline();
+    }
+
+    @Benchmark
+    public String generateAndWriteAsyncFileChannel() {
+        return worker.generateAndWriteAsyncFileChannel();
+    }
+
+    @Benchmark
+    public String generateAndWriteDirectIO() {
+        return worker.generateAndWriteDirectIO();
+    }
+
+    @Benchmark
+    public String generateAndWriteRandomAccessFileParallel() {
+        return worker.generateAndWriteRandomAccessFileParallel();
+    }
+
+    @Benchmark
+    public String generateAndWriteMultiProcess() {
+        return worker.generateAndWriteMultiProcess(threads);
+    }
+
+    // Many files
+    @Benchmark
+    public void jobSchedulerManyFiles() throws IOException {
+        try (JobScheduler scheduler = new JobScheduler(threads, threads, SCHEDULER_MEMORY_BUDGET)) {
+            scheduler.runAll(IntStream.range(0, SCHEDULER_FILES)
+                    .mapToObj(i -> new JobSpec(i, fileSize / SCHEDULER_FILES, catalog.resolve("job-" + i + ".txt"))));
+        }
+    }
+
+    /**
+     * Accepts usual JMH command line arguments, always adds GC and allocation profiler
+     */
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
 
 public class WorkerTest {
 
@@ -24,6 +25,63 @@ public class WorkerTest {
         Assertions.assertArrayEquals(bytesRand0, readBytes);
     }
     @Test
+    public void test_generate_and_write_mapped_byte_buffer_direct() {
+        final int len = 100_000_000;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        long tStart = System.currentTimeMillis();
+        Worker worker = new Worker(0, 100_000_000, "results");
+        String fileName = worker.generateAndWriteMappedByteBufferDirect();
+        long tEnd = System.currentTimeMillis();
+        worker.logTime("wholeProgram", tStart, tEnd);
+
+        byte[] readBytes = worker.readBytesFromFile(fileName);
+        Assertions.assertArrayEquals(bytesRand0, readBytes);
+    }
+    /**
+     * Small unaligned window to check, that mapping the file region by region keeps the sequence
+     */
+    @Test
+    public void test_generate_and_write_mapped_byte_buffer_windows() {
+        final int len = 10_000_000;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        Worker worker = new Worker(0, len, "results");
+        worker.setWindowSize(1_000_003);
+        String fileName = worker.generateAndWriteMappedByteBufferBatches();
+        Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+
+        Worker workerDirect = new Worker(0, len, "results");
+        workerDirect.setWindowSize(1_000_003);
+        String fileNameDirect = workerDirect.generateAndWriteMappedByteBufferDirect();
+        Assertions.assertArrayEquals(bytesRand0, workerDirect.readBytesFromFile(fileNameDirect));
+    }
+    @Test
+    public void test_mapped_byte_buffer_writers_with_durability() {
+        final int len = 10_000_000;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        Worker worker = new Worker(0, len, "results");
+        worker.setWindowSize(1_000_003);
+        worker.setDurability(Durability.PERIODIC, 2_000_000);
+        String fileName = worker.generateAndWriteMappedByteBufferDirect();
+        Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+        fileName = worker.writeMappedByteBufferParallel(bytesRand0);
+        Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+
+        Worker workerQueue = new Worker(0, len, "results");
+        workerQueue.setWindowSize(1_000_003);
+        workerQueue.setDurability(Durability.FORCE_AT_END);
+        fileName = workerQueue.generateAndWriteMappedByteBufferBatchesQueue();
+        Assertions.assertArrayEquals(bytesRand0, workerQueue.readBytesFromFile(fileName));
+    }
+    @Test
     public void test_generate_and_write_mapped_byte_buffer_queue() {
         final int len = 100_000_000;
         Random rand0 = new Random(0);
@@ -40,6 +98,24 @@ public class WorkerTest {
         Assertions.assertArrayEquals(bytesRand0, readBytes);
     }
 
+    @Test
+    public void test_generate_and_write_ring_pipeline() {
+        final int len = 100_000_000;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        long tStart = System.currentTimeMillis();
+        Worker worker = new Worker(0, len, "results");
+        String fileName = worker.generateAndWriteRingPipeline();
+        long tEnd = System.currentTimeMillis();
+        worker.logTime("wholeProgram", tStart, tEnd);
+        Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+
+        fileName = worker.generateAndWriteRingPipeline(3, 2);
+        Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+    }
+
     @Test
     public void test_serial_generating_parallel_writing_mapped_byte_buffer() {
         long tStart = System.currentTimeMillis();
@@ -110,26 +186,112 @@ public class WorkerTest {
     }
 
     /**
-     * Parallel generating generates bytes incorrectly
+     * Parallel generating jumps every batch to its own LCG state, so it gives the same bytes as Random(0)
      */
     @Test
-    public void test_parallel_generating_is_incorrect() {
+    public void test_parallel_generating_is_correct() {
         final int len = 100_000_000;
 
         Random rand0 = new Random(0);
         byte[] bytesRand0 = new byte[len];
         rand0.nextBytes(bytesRand0);
-        Random rand1 = new Random(0);
-        byte[] bytesRand1 = new byte[len];
-        rand1.nextBytes(bytesRand1);
-        Assertions.assertArrayEquals(bytesRand0, bytesRand1);
 
         Worker worker1 = new Worker(0, len, "results");
         Worker worker2 = new Worker(0, len, "results");
         byte[] bytesLibParallel1 = worker1.generateBytesLibParallel();
         byte[] bytesLibParallel2 = worker2.generateBytesLibParallel();
-        Assertions.assertNotEquals(bytesLibParallel1, bytesLibParallel2);
-        Assertions.assertNotEquals(bytesRand0, bytesLibParallel2);
+        Assertions.assertArrayEquals(bytesLibParallel1, bytesLibParallel2);
+        Assertions.assertArrayEquals(bytesRand0, bytesLibParallel2);
+    }
+
+    /**
+     * One worker runs many parallel jobs on its own pool, until it is closed
+     */
+    @Test
+    public void test_worker_reuses_pool_for_parallel_methods() {
+        final int len = 10_000_000;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        try (Worker worker = new Worker(0, len, "results")) {
+            worker.setThreads(3);
+            ExecutorService pool = worker.getExecutor();
+            for (int repeat = 0; repeat < 3; repeat++) {
+                Assertions.assertArrayEquals(bytesRand0, worker.generateBytesLibParallel());
+            }
+            String fileName = worker.writeRandomAccessFileParallel(bytesRand0);
+            Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+            fileName = worker.writeMappedByteBufferParallel(bytesRand0);
+            Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+            worker.generateAndWriteSharded(List.of("results"), 4);
+            Assertions.assertSame(pool, worker.getExecutor());
+            Assertions.assertFalse(pool.isShutdown());
+
+            worker.setThreads(2);
+            Assertions.assertTrue(pool.isShutdown());
+            Assertions.assertNotSame(pool, worker.getExecutor());
+        }
+    }
+
+    @Test
+    public void test_parallel_generating_parallel_writing_random_access_file() {
+        final int len = 100_000_000;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        long tStart = System.currentTimeMillis();
+        Worker worker = new Worker(0, len, "results");
+        String fileName = worker.generateAndWriteRandomAccessFileParallel();
+        long tEnd = System.currentTimeMillis();
+        worker.logTime("wholeProgram", tStart, tEnd);
+
+        byte[] readBytes = worker.readBytesFromFile(fileName);
+        Assertions.assertArrayEquals(bytesRand0, readBytes);
+    }
+
+    @Test
+    public void test_multi_process_generating_writing_shared_file() {
+        final int len = 10_000_000;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        Worker worker = new Worker(0, len, "results");
+        String fileName = worker.generateAndWriteMultiProcess(2);
+
+        byte[] readBytes = worker.readBytesFromFile(fileName);
+        Assertions.assertArrayEquals(bytesRand0, readBytes);
+    }
+
+    @Test
+    public void test_generate_and_write_async_file_channel() {
+        final int len = 10_000_003;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        Worker worker = new Worker(0, len, "results");
+        worker.setQueueDepth(4);
+        worker.setDurability(Durability.FORCE_AT_END);
+        String fileName = worker.generateAndWriteAsyncFileChannel();
+        Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+
+        worker.setQueueDepth(1);
+        fileName = worker.generateAndWriteAsyncFileChannel();
+        Assertions.assertArrayEquals(bytesRand0, worker.readBytesFromFile(fileName));
+    }
+
+    @Test
+    public void test_chunk_stream_generating_is_correct() {
+        final int len = 10_000_003;
+        Random rand0 = new Random(0);
+        byte[] bytesRand0 = new byte[len];
+        rand0.nextBytes(bytesRand0);
+
+        Worker worker = new Worker(0, len, "results");
+        Assertions.assertArrayEquals(bytesRand0, worker.generateBytesChunkStreamParallel());
     }
 
 }